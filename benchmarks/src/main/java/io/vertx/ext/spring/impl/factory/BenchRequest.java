@@ -0,0 +1,233 @@
+package io.vertx.ext.spring.impl.factory;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.http.HttpFrame;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerFileUpload;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.net.SocketAddress;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import javax.security.cert.X509Certificate;
+
+/**
+ * An in-memory request, with its query string parsed once.
+ * <p>Only what the handler dispatch reads is implemented.
+ */
+class BenchRequest implements HttpServerRequest {
+
+    private final HttpMethod method;
+
+    private final String uri;
+
+    private final String path;
+
+    private final String query;
+
+    private final MultiMap headers = new CaseInsensitiveHeaders();
+
+    private final MultiMap params = new CaseInsensitiveHeaders();
+
+    private final BenchResponse response = new BenchResponse();
+
+    BenchRequest(HttpMethod method, String uri) {
+        this.method = method;
+        this.uri = uri;
+        int queryStart = uri.indexOf('?');
+        this.path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+        this.query = queryStart < 0 ? null : uri.substring(queryStart + 1);
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                params.add(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+    }
+
+    BenchRequest header(String name, String value) {
+        headers.add(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest exceptionHandler(Handler<Throwable> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest handler(Handler<Buffer> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest pause() {
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest resume() {
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest endHandler(Handler<Void> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpVersion version() {
+        return HttpVersion.HTTP_1_1;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return method;
+    }
+
+    @Override
+    public String rawMethod() {
+        return method.name();
+    }
+
+    @Override
+    public boolean isSSL() {
+        return false;
+    }
+
+    @Override
+    public String scheme() {
+        return "http";
+    }
+
+    @Override
+    public String uri() {
+        return uri;
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+
+    @Override
+    public String query() {
+        return query;
+    }
+
+    @Override
+    public String host() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BenchResponse response() {
+        return response;
+    }
+
+    @Override
+    public MultiMap headers() {
+        return headers;
+    }
+
+    @Override
+    public String getHeader(String headerName) {
+        return headers.get(headerName);
+    }
+
+    @Override
+    public String getHeader(CharSequence headerName) {
+        return headers.get(headerName);
+    }
+
+    @Override
+    public MultiMap params() {
+        return params;
+    }
+
+    @Override
+    public String getParam(String paramName) {
+        return params.get(paramName);
+    }
+
+    @Override
+    public SocketAddress remoteAddress() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SocketAddress localAddress() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SSLSession sslSession() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public X509Certificate[] peerCertificateChain() throws SSLPeerUnverifiedException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String absoluteURI() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NetSocket netSocket() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerRequest setExpectMultipart(boolean enabled) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isExpectMultipart() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerRequest uploadHandler(Handler<HttpServerFileUpload> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MultiMap formAttributes() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getFormAttribute(String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ServerWebSocket upgrade() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isEnded() {
+        return true;
+    }
+
+    @Override
+    public HttpServerRequest customFrameHandler(Handler<HttpFrame> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpConnection connection() {
+        throw new UnsupportedOperationException();
+    }
+}
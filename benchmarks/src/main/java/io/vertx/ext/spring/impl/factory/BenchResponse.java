@@ -0,0 +1,273 @@
+package io.vertx.ext.spring.impl.factory;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * An in-memory response keeping the last body it was ended with.
+ */
+class BenchResponse implements HttpServerResponse {
+
+    private final MultiMap headers = new CaseInsensitiveHeaders();
+
+    private int statusCode = 200;
+
+    private String statusMessage;
+
+    private Object body;
+
+    private boolean ended;
+
+    /**
+     * Gets the response ready for the next invocation and returns the last body.
+     */
+    Object recycle() {
+        Object body = this.body;
+        this.body = null;
+        ended = false;
+        statusCode = 200;
+        return body;
+    }
+
+    @Override
+    public HttpServerResponse exceptionHandler(Handler<Throwable> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse write(Buffer buffer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse setWriteQueueMaxSize(int value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+        return false;
+    }
+
+    @Override
+    public HttpServerResponse drainHandler(Handler<Void> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public HttpServerResponse setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+        return this;
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    @Override
+    public HttpServerResponse setStatusMessage(String statusMessage) {
+        this.statusMessage = statusMessage;
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse setChunked(boolean chunked) {
+        return this;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return false;
+    }
+
+    @Override
+    public MultiMap headers() {
+        return headers;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(String name, String value) {
+        headers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(CharSequence name, CharSequence value) {
+        headers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(String value, Iterable<String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse putHeader(CharSequence value, Iterable<CharSequence> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MultiMap trailers() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(String value, String value2) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(CharSequence value, CharSequence value2) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(String value, Iterable<String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(CharSequence value, Iterable<CharSequence> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse closeHandler(Handler<Void> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse endHandler(Handler<Void> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse write(String value, String value2) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse write(String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse writeContinue() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void end(String chunk) {
+        body = chunk;
+        ended = true;
+    }
+
+    @Override
+    public void end(String chunk, String enc) {
+        body = chunk;
+        ended = true;
+    }
+
+    @Override
+    public void end(Buffer chunk) {
+        body = chunk;
+        ended = true;
+    }
+
+    @Override
+    public void end() {
+        ended = true;
+    }
+
+    @Override
+    public HttpServerResponse sendFile(String value, long value2, long value3) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse sendFile(String value, long value2, long value3, Handler<AsyncResult<Void>> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean ended() {
+        return ended;
+    }
+
+    @Override
+    public boolean closed() {
+        return false;
+    }
+
+    @Override
+    public boolean headWritten() {
+        return ended;
+    }
+
+    @Override
+    public HttpServerResponse headersEndHandler(Handler<Void> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse bodyEndHandler(Handler<Void> handler) {
+        return this;
+    }
+
+    @Override
+    public long bytesWritten() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int streamId() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse push(HttpMethod httpMethod, String value, String value2, Handler<AsyncResult<HttpServerResponse>> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse push(HttpMethod httpMethod, String value, MultiMap multiMap, Handler<AsyncResult<HttpServerResponse>> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse push(HttpMethod httpMethod, String value, Handler<AsyncResult<HttpServerResponse>> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse push(HttpMethod httpMethod, String value, String value2, MultiMap multiMap, Handler<AsyncResult<HttpServerResponse>> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void reset(long value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServerResponse writeCustomFrame(int value, int value2, Buffer buffer) {
+        throw new UnsupportedOperationException();
+    }
+}
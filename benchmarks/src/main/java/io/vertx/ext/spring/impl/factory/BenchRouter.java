@@ -0,0 +1,72 @@
+package io.vertx.ext.spring.impl.factory;
+
+import io.vertx.ext.spring.annotation.RouterHeader;
+import io.vertx.ext.spring.annotation.RouterParam;
+import io.vertx.ext.spring.annotation.RouterPathVariable;
+import io.vertx.ext.spring.annotation.RouterRequestBody;
+
+/**
+ * The handler methods measured by {@link DispatchBenchmark}.
+ */
+public class BenchRouter {
+
+    public String noArgs() {
+        return "ok";
+    }
+
+    public String mixed(@RouterPathVariable("id") long id,
+                        @RouterParam("page") int page,
+                        @RouterParam("full") boolean full,
+                        @RouterHeader("X-Request-Id") String requestId) {
+        return full ? requestId : "partial";
+    }
+
+    public String body(@RouterRequestBody Item item) {
+        return item.getName();
+    }
+
+    public Item json() {
+        Item item = new Item();
+        item.setId(42L);
+        item.setName("answer");
+        item.setPrice(4.2);
+        return item;
+    }
+
+    public long primitive() {
+        return 42L;
+    }
+
+    public static class Item {
+
+        private Long id;
+
+        private String name;
+
+        private double price;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package io.vertx.ext.spring.impl.factory;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.Cookie;
+import io.vertx.ext.web.FileUpload;
+import io.vertx.ext.web.Locale;
+import io.vertx.ext.web.ParsedHeaderValues;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.Session;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An in-memory routing context over a {@link BenchRequest}.
+ * <p>Failures are kept and reported when the context is recycled, so a broken benchmark
+ * does not go unnoticed.
+ */
+class BenchRoutingContext implements RoutingContext {
+
+    private final BenchRequest request;
+
+    private final Map<String, String> pathParams = new HashMap<>();
+
+    private Map<String, Object> data;
+
+    private Buffer body;
+
+    private Throwable failure;
+
+    private int statusCode = -1;
+
+    BenchRoutingContext(BenchRequest request) {
+        this.request = request;
+    }
+
+    BenchRoutingContext pathParam(String name, String value) {
+        pathParams.put(name, value);
+        return this;
+    }
+
+    /**
+     * Gets the context ready for the next invocation and returns the last response body.
+     */
+    Object recycle() {
+        if (failure != null) {
+            throw new IllegalStateException("Handler failed", failure);
+        } else if (statusCode != -1) {
+            throw new IllegalStateException("Handler failed with status " + statusCode);
+        }
+        data = null;
+        return request.response().recycle();
+    }
+
+    @Override
+    public HttpServerRequest request() {
+        return request;
+    }
+
+    @Override
+    public HttpServerResponse response() {
+        return request.response();
+    }
+
+    @Override
+    public void next() {
+    }
+
+    @Override
+    public void fail(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    @Override
+    public void fail(Throwable throwable) {
+        this.failure = throwable;
+    }
+
+    @Override
+    public RoutingContext put(String key, Object obj) {
+        data().put(key, obj);
+        return this;
+    }
+
+    @Override
+    public <T> T get(String key) {
+        @SuppressWarnings("unchecked")
+        T value = data == null ? null : (T) data.get(key);
+        return value;
+    }
+
+    @Override
+    public <T> T remove(String key) {
+        @SuppressWarnings("unchecked")
+        T value = data == null ? null : (T) data.remove(key);
+        return value;
+    }
+
+    @Override
+    public Map<String, Object> data() {
+        if (data == null) {
+            data = new HashMap<>();
+        }
+        return data;
+    }
+
+    @Override
+    public Vertx vertx() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String mountPoint() {
+        return null;
+    }
+
+    @Override
+    public Route currentRoute() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String normalisedPath() {
+        return request.path();
+    }
+
+    @Override
+    public Cookie getCookie(String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public RoutingContext addCookie(Cookie cookie) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Cookie removeCookie(String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int cookieCount() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<Cookie> cookies() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getBodyAsString() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getBodyAsString(String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JsonObject getBodyAsJson() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JsonArray getBodyAsJsonArray() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Buffer getBody() {
+        return body;
+    }
+
+    @Override
+    public Set<FileUpload> fileUploads() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Session session() {
+        return null;
+    }
+
+    @Override
+    public User user() {
+        return null;
+    }
+
+    @Override
+    public Throwable failure() {
+        return failure;
+    }
+
+    @Override
+    public int statusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public String getAcceptableContentType() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ParsedHeaderValues parsedHeaders() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int addHeadersEndHandler(Handler<Void> handler) {
+        return 0;
+    }
+
+    @Override
+    public boolean removeHeadersEndHandler(int value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int addBodyEndHandler(Handler<Void> handler) {
+        return 0;
+    }
+
+    @Override
+    public boolean removeBodyEndHandler(int value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean failed() {
+        return failure != null || statusCode != -1;
+    }
+
+    @Override
+    public void setBody(Buffer body) {
+        this.body = body;
+    }
+
+    @Override
+    public void setSession(Session session) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setUser(User user) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clearUser() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAcceptableContentType(String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void reroute(HttpMethod httpMethod, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Locale> acceptableLocales() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, String> pathParams() {
+        return pathParams;
+    }
+
+    @Override
+    public String pathParam(String name) {
+        return pathParams.get(name);
+    }
+
+    @Override
+    public MultiMap queryParams() {
+        return request.params();
+    }
+
+    @Override
+    public List<String> queryParam(String query) {
+        return request.params().getAll(query);
+    }
+}
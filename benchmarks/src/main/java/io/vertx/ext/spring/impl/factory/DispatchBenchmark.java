@@ -0,0 +1,127 @@
+package io.vertx.ext.spring.impl.factory;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.spring.impl.factory.RouterFactory.RouterHandlerImpl;
+import io.vertx.ext.spring.impl.handler.BodyWriter;
+import io.vertx.ext.spring.impl.handler.HandlerInvoker;
+import io.vertx.ext.spring.impl.handler.HandlerInvokers;
+import io.vertx.ext.spring.impl.handler.JsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of a request to an annotated handler method, from the {@link RouterHandlerImpl}
+ * call to the end of the response, with no network or routing involved.
+ * <p>Run with {@code java -jar target/benchmarks.jar -prof gc} to get the allocation rate
+ * along with the throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({"METHOD_HANDLE", "REFLECTION"})
+    public HandlerInvoker.Mode invoker;
+
+    private RouterHandlerImpl noArgs;
+
+    private BenchRoutingContext noArgsContext;
+
+    private RouterHandlerImpl mixed;
+
+    private BenchRoutingContext mixedContext;
+
+    private RouterHandlerImpl body;
+
+    private BenchRoutingContext bodyContext;
+
+    private RouterHandlerImpl json;
+
+    private BenchRoutingContext jsonContext;
+
+    private RouterHandlerImpl primitive;
+
+    private BenchRoutingContext primitiveContext;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchRouter router = new BenchRouter();
+        JsonCodec codec = new JsonCodec(null);
+
+        noArgs = handler(router, codec, "noArgs", HttpMethod.GET, "/noArgs");
+        noArgsContext = new BenchRoutingContext(new BenchRequest(HttpMethod.GET, "/noArgs"));
+
+        mixed = handler(router, codec, "mixed", HttpMethod.GET, "/mixed/:id");
+        mixedContext = new BenchRoutingContext(new BenchRequest(HttpMethod.GET, "/mixed/7?page=3&full=true")
+                .header("X-Request-Id", "f81d4fae"))
+                .pathParam("id", "7");
+
+        body = handler(router, codec, "body", HttpMethod.POST, "/body");
+        bodyContext = new BenchRoutingContext(new BenchRequest(HttpMethod.POST, "/body"));
+        bodyContext.setBody(Buffer.buffer("{\"id\":42,\"name\":\"answer\",\"price\":4.2}"));
+
+        json = handler(router, codec, "json", HttpMethod.GET, "/json");
+        jsonContext = new BenchRoutingContext(new BenchRequest(HttpMethod.GET, "/json"));
+
+        primitive = handler(router, codec, "primitive", HttpMethod.GET, "/primitive");
+        primitiveContext = new BenchRoutingContext(new BenchRequest(HttpMethod.GET, "/primitive"));
+    }
+
+    private RouterHandlerImpl handler(BenchRouter router, JsonCodec codec, String name,
+                                      HttpMethod httpMethod, String url) {
+        Method method = null;
+        for (Method candidate : BenchRouter.class.getMethods()) {
+            if (candidate.getName().equals(name)) {
+                method = candidate;
+            }
+        }
+        HandlerInvoker handlerInvoker = HandlerInvokers.create(router, method, invoker);
+        return new RouterHandlerImpl(router, method, handlerInvoker, codec, BodyWriter.END, httpMethod, url);
+    }
+
+    @Benchmark
+    public Object noArgs() {
+        noArgs.handle(noArgsContext);
+        return noArgsContext.recycle();
+    }
+
+    @Benchmark
+    public Object mixedParams() {
+        mixed.handle(mixedContext);
+        return mixedContext.recycle();
+    }
+
+    @Benchmark
+    public Object jsonBody() {
+        body.handle(bodyContext);
+        return bodyContext.recycle();
+    }
+
+    @Benchmark
+    public Object jsonResponse() {
+        json.handle(jsonContext);
+        return jsonContext.recycle();
+    }
+
+    @Benchmark
+    public Object primitiveResponse() {
+        primitive.handle(primitiveContext);
+        return primitiveContext.recycle();
+    }
+}
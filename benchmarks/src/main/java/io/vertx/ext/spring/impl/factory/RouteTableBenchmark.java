@@ -0,0 +1,79 @@
+package io.vertx.ext.spring.impl.factory;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.spring.impl.handler.RouteTable;
+import io.vertx.ext.web.RoutingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of a request in the {@link RouteTable}, for tables of growing size: the cost of a
+ * static and of a parameterized path should stay flat whatever the number of routes.
+ * <p>Routes are spread over 10 controller prefixes, half of them with a path variable, and
+ * the requests go to the last routes registered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteTableBenchmark {
+
+    @Param({"10", "100", "500", "1000"})
+    public int routes;
+
+    private RouteTable table;
+
+    private BenchRoutingContext staticContext;
+
+    private BenchRoutingContext variableContext;
+
+    private BenchRoutingContext missContext;
+
+    @Setup
+    public void setup() {
+        Handler<RoutingContext> handler = (context) -> context.response().end();
+        table = new RouteTable();
+        for (int i = 0; i < routes; i++) {
+            String path = "/controller" + (i % 10) + "/route" + i;
+            table.add(HttpMethod.GET, i % 2 == 0 ? path : path + "/:id", handler);
+        }
+        int last = routes - 1;
+        staticContext = new BenchRoutingContext(new BenchRequest(HttpMethod.GET,
+                "/controller" + ((last - 1) % 10) + "/route" + (last - 1)));
+        variableContext = new BenchRoutingContext(new BenchRequest(HttpMethod.GET,
+                "/controller" + (last % 10) + "/route" + last + "/42"));
+        missContext = new BenchRoutingContext(new BenchRequest(HttpMethod.GET, "/controller0/unknown/42"));
+    }
+
+    @Benchmark
+    public Object staticPath() {
+        table.handle(staticContext);
+        return staticContext.recycle();
+    }
+
+    @Benchmark
+    public Object variablePath() {
+        table.handle(variableContext);
+        return variableContext.recycle();
+    }
+
+    @Benchmark
+    public Object miss() {
+        table.handle(missContext);
+        return missContext.recycle();
+    }
+}
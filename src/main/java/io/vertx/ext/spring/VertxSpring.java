@@ -1,16 +1,42 @@
 package io.vertx.ext.spring;
 
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.metrics.MetricsOptions;
+import io.vertx.ext.spring.impl.SharedApplicationContext;
 import io.vertx.ext.spring.impl.SpringHttpVerticle;
+import io.vertx.ext.spring.impl.VertxHolder;
+import io.vertx.ext.spring.impl.metrics.ClientMetrics;
 
 
 public interface VertxSpring {
 
+  /**
+   * The metrics options of a Vert.x instance measuring the pools of the http clients
+   * declared with {@code metrics="true"}.
+   */
+  static MetricsOptions metricsOptions() {
+    return new MetricsOptions().setEnabled(true).setFactory(ClientMetrics.factory());
+  }
+
+  /**
+   * Deploys the server declared by the {@code <vertx:http-server>} element of the context.
+   */
+  static void deploy(Vertx vertx, String configurationFile) {
+    deploy(vertx, configurationFile, (HttpServerOptions) null);
+  }
+
+  static void deploy(Vertx vertx, String configurationFile, Handler<AsyncResult<String>> handler) {
+    deploy(vertx, configurationFile, null, handler);
+  }
+
   static void deploy(Vertx vertx, String configurationFile, HttpServerOptions options) {
     deploy(vertx, () -> new ClassPathXmlApplicationContext(configurationFile), options);
   }
@@ -28,4 +54,49 @@ public interface VertxSpring {
     vertx.deployVerticle(new SpringHttpVerticle(factory, options), handler);
   }
 
+  static void deploy(Vertx vertx, String configurationFile, HttpServerOptions options, int instances) {
+    deploy(vertx, () -> new ClassPathXmlApplicationContext(configurationFile), options, instances);
+  }
+
+  static void deploy(Vertx vertx, String configurationFile, HttpServerOptions options, int instances,
+                     Handler<AsyncResult<String>> handler) {
+    deploy(vertx, () -> new ClassPathXmlApplicationContext(configurationFile), options, instances, handler);
+  }
+
+  static void deploy(Vertx vertx, ContextFactory factory, HttpServerOptions options, int instances) {
+    deploy(vertx, factory, options, instances, (ar) -> {
+    });
+  }
+
+  /**
+   * Deploys {@code instances} verticles serving the same application context.
+   * <p>The context is created once, its router and clients are shared by all the instances,
+   * each of them only gets its own {@link io.vertx.core.http.HttpServer} on its event loop.
+   * The context is closed when the last instance is undeployed, or when the deployment fails.
+   */
+  static void deploy(Vertx vertx, ContextFactory factory, HttpServerOptions options, int instances,
+                     Handler<AsyncResult<String>> handler) {
+    vertx.<ApplicationContext>executeBlocking((f) -> {
+      VertxHolder.set(vertx);
+      f.complete(factory.create());
+    }, (ar) -> {
+      if (ar.failed()) {
+        handler.handle(Future.failedFuture(ar.cause()));
+        return;
+      }
+      SharedApplicationContext shared = new SharedApplicationContext(ar.result());
+      vertx.deployVerticle(() -> new SpringHttpVerticle(shared, options),
+        new DeploymentOptions().setInstances(instances), (deployed) -> {
+          if (deployed.succeeded()) {
+            handler.handle(deployed);
+            return;
+          }
+          vertx.<Void>executeBlocking((f) -> {
+            shared.close();
+            f.complete();
+          }, false, (closed) -> handler.handle(deployed));
+        });
+    });
+  }
+
 }
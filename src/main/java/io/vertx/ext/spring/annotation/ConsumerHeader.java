@@ -0,0 +1,37 @@
+package io.vertx.ext.spring.annotation;
+
+import org.springframework.core.annotation.AliasFor;
+
+import java.lang.annotation.*;
+
+/**
+ * Binds a parameter of a {@link VertxConsumer} method to a header of the message.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConsumerHeader {
+
+    /**
+     * Alias for {@link #name}.
+     */
+    @AliasFor("name")
+    String value() default "";
+
+    /**
+     * The name of the message header to bind to, the parameter name when empty.
+     */
+    @AliasFor("value")
+    String name() default "";
+
+    /**
+     * Whether the header is required, failing the message when it is missing.
+     * <p>Supplying a {@link #defaultValue} implicitly sets this flag to {@code false}.
+     */
+    boolean required() default true;
+
+    /**
+     * The default value to use as a fallback.
+     */
+    String defaultValue() default "";
+}
@@ -0,0 +1,35 @@
+package io.vertx.ext.spring.annotation;
+
+
+import java.lang.annotation.*;
+
+/**
+ * Caches the responses of a GET handler.
+ * <p>Responses are kept encoded, with an {@code ETag}, under a key made of the request path
+ * and of the listed path variables, request params and headers. A cached request is answered without calling the
+ * handler, and with {@code 304} when it already holds the current {@code ETag}.
+ * <p>Only the {@code 200} responses written from the handler return value are cached.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RouterCache {
+
+    /**
+     * Time to live of a response, in milliseconds.
+     */
+    long ttl() default 60_000;
+
+    int maxEntries() default 1000;
+
+    /**
+     * Maximum total size of the cached bodies, {@code -1} for no limit.
+     */
+    long maxBytes() default -1;
+
+    String[] pathVariables() default {};
+
+    String[] params() default {};
+
+    String[] headers() default {};
+}
@@ -18,4 +18,33 @@ public @interface RouterHandler {
 
   boolean worker() default false;
 
+  /**
+   * Name of the {@code <vertx:worker-pool>} running the handler, implies {@link #worker()}.
+   * <p>Empty to run worker handlers on the Vert.x worker pool.
+   */
+  String workerPool() default "";
+
+  /**
+   * Whether worker calls made from the same Vert.x context run one after the other.
+   * <p>Turn it off to let concurrent requests of a route use several worker threads.
+   */
+  boolean ordered() default true;
+
+  /**
+   * Maximum size in bytes of the request body, {@code -1} to use the router default.
+   * <p>Larger requests are rejected with {@code 413}, before reading the body when
+   * they announce a {@code Content-Length}. A body read as a whole is held in memory, multipart
+   * file uploads aside, and is limited to 10 MiB when neither the route nor the router sets a
+   * limit. A streamed body has no limit then.
+   */
+  long bodyLimit() default -1;
+
+  /**
+   * Milliseconds to answer a request, {@code 0} for no limit and {@code -1} to use the
+   * router default.
+   * <p>A request still waiting for a worker then fails with {@code 503}, a running one with
+   * {@code 504}, its worker thread being interrupted and its returned future cancelled.
+   */
+  long timeout() default -1;
+
 }
@@ -0,0 +1,43 @@
+package io.vertx.ext.spring.annotation;
+
+
+import java.lang.annotation.*;
+
+/**
+ * Limits the load a handler takes, rejecting the excess requests at once.
+ * <p>A request over {@link #maxConcurrency} gets a {@code 503}, one over {@link #rate} a
+ * {@code 429}, both with a {@code Retry-After} header. A request is in flight until its
+ * response ends or its connection closes.
+ * <p>With {@link #adaptive} the concurrency limit moves between {@link #minConcurrency} and
+ * {@link #maxConcurrency}: it grows while the handler answers within {@link #targetLatency}
+ * and is cut by a tenth when it does not.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RouterLimit {
+
+    /**
+     * Maximum number of requests in flight, {@code -1} for no limit.
+     */
+    int maxConcurrency() default -1;
+
+    /**
+     * Requests per second, {@code -1} for no limit.
+     */
+    double rate() default -1;
+
+    /**
+     * Requests accepted at once above the rate, {@code -1} for one second of rate.
+     */
+    int burst() default -1;
+
+    boolean adaptive() default false;
+
+    int minConcurrency() default 1;
+
+    /**
+     * Latency the adaptive limit aims for, in milliseconds.
+     */
+    long targetLatency() default 100;
+}
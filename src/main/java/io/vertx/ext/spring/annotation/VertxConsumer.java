@@ -0,0 +1,41 @@
+package io.vertx.ext.spring.annotation;
+
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers a bean method as an event bus consumer.
+ * <p>The method takes the message body, converted from JSON when it is not of the parameter
+ * type, and may also take the {@code Message} or some of its headers with
+ * {@link ConsumerHeader}. A return value, or the result of a returned {@code Future} or
+ * {@code CompletionStage}, is the reply to the message, and a failure fails the message. The
+ * handler of a returned {@code Future} is taken to reply, the method must not set its own.
+ * <p>Replies which are not of a type the event bus knows go by reference with the local
+ * codec, see {@code LocalCodec}, when the consumer is {@link #local()} or Vert.x is not
+ * clustered. They are sent as JSON otherwise, since the sender may be in another JVM.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface VertxConsumer {
+
+  /**
+   * The address to consume.
+   */
+  String value();
+
+  boolean worker() default false;
+
+  /**
+   * Whether worker calls made from the same Vert.x context run one after the other.
+   */
+  boolean ordered() default true;
+
+  /**
+   * Whether to only get the messages sent from this JVM, with a cluster.
+   */
+  boolean local() default false;
+
+}
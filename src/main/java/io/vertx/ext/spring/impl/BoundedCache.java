@@ -0,0 +1,159 @@
+package io.vertx.ext.spring.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * The in-memory cache behind the response cache of a route and the redis near cache.
+ * <p>Hits are lock-free. Entries are evicted in insertion order once there are too many of
+ * them or they weigh too much, and dropped on read once expired. Writes take a lock, and an
+ * entry is unlinked from the insertion order in constant time, whatever the size.
+ */
+public class BoundedCache<K, V> {
+
+  private final int maxEntries;
+
+  private final long maxWeight;
+
+  private final ToLongFunction<V> weigher;
+
+  private final Map<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+
+  // the eldest entry follows the head, guarded by this
+  private final Node<K, V> head = new Node<>(null, null, 0, 0);
+
+  private volatile long weight;
+
+  private final LongAdder evictions = new LongAdder();
+
+  private final LongAdder expirations = new LongAdder();
+
+  /**
+   * @param maxWeight the maximum total weight of the values, {@code -1} for no limit
+   * @param weigher   the weight of a value, {@code null} when the weight is not bounded
+   */
+  public BoundedCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher) {
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    head.previous = head;
+    head.next = head;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long weight() {
+    return weight;
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public long getExpirations() {
+    return expirations.sum();
+  }
+
+  /**
+   * The value of the key, {@code null} when there is none or it expired.
+   */
+  public V get(K key) {
+    Node<K, V> node = entries.get(key);
+    if (node == null) {
+      return null;
+    }
+    if (node.expiresAt - System.nanoTime() > 0) {
+      return node.value;
+    }
+    if (remove(node)) {
+      expirations.increment();
+    }
+    return null;
+  }
+
+  public void put(K key, V value, long ttlNanos) {
+    Node<K, V> node = new Node<>(key, value, weigher != null ? weigher.applyAsLong(value) : 0,
+      System.nanoTime() + ttlNanos);
+    synchronized (this) {
+      Node<K, V> previous = entries.put(key, node);
+      if (previous != null) {
+        unlink(previous);
+      }
+      link(node);
+      while (entries.size() > maxEntries || (maxWeight >= 0 && weight > maxWeight)) {
+        Node<K, V> eldest = head.next;
+        if (eldest == head) {
+          break;
+        }
+        entries.remove(eldest.key, eldest);
+        unlink(eldest);
+        evictions.increment();
+      }
+    }
+  }
+
+  public boolean remove(K key) {
+    Node<K, V> node = entries.get(key);
+    return node != null && remove(node);
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    head.previous = head;
+    head.next = head;
+    weight = 0;
+  }
+
+  private synchronized boolean remove(Node<K, V> node) {
+    if (entries.remove(node.key, node)) {
+      unlink(node);
+      return true;
+    }
+    return false;
+  }
+
+  private void link(Node<K, V> node) {
+    node.previous = head.previous;
+    node.next = head;
+    head.previous.next = node;
+    head.previous = node;
+    weight += node.weight;
+  }
+
+  private void unlink(Node<K, V> node) {
+    if (node.next == null) {
+      return;
+    }
+    node.previous.next = node.next;
+    node.next.previous = node.previous;
+    node.previous = null;
+    node.next = null;
+    weight -= node.weight;
+  }
+
+  private static final class Node<K, V> {
+
+    final K key;
+
+    final V value;
+
+    final long weight;
+
+    final long expiresAt;
+
+    Node<K, V> previous;
+
+    Node<K, V> next;
+
+    Node(K key, V value, long weight, long expiresAt) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
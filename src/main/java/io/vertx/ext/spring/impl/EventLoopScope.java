@@ -0,0 +1,153 @@
+package io.vertx.ext.spring.impl;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextImpl;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * A bean scope giving each Vert.x context its own instance, so a client is created on the
+ * event loop using it and never hops to another one.
+ * <p>Instances are kept in the local data of their context. Each thread remembers the
+ * instances of the last context it ran, so a lookup from an event loop takes no lock.
+ * Outside of any Vert.x context a single shared instance is used.
+ * <p>The instances of a context are destroyed when it closes, such as when its verticle is
+ * undeployed, and the remaining ones when the Spring context closes.
+ */
+public class EventLoopScope implements Scope, DisposableBean {
+
+  public static final String NAME = "event-loop";
+
+  private static final Logger logger = LoggerFactory.getLogger(EventLoopScope.class);
+
+  private static final String BEANS_KEY = EventLoopScope.class.getName() + ".beans";
+
+  private final Beans noContextBeans = new Beans();
+
+  private final Set<Beans> contextBeans = ConcurrentHashMap.newKeySet();
+
+  private final FastThreadLocal<Binding> current = new FastThreadLocal<>();
+
+  @Override
+  public Object get(String name, ObjectFactory<?> objectFactory) {
+    Map<String, Object> beans = beans(Vertx.currentContext()).instances;
+    Object bean = beans.get(name);
+    if (bean == null) {
+      bean = objectFactory.getObject();
+      Object previous = beans.putIfAbsent(name, bean);
+      if (previous != null) {
+        bean = previous;
+      }
+    }
+    return bean;
+  }
+
+  @Override
+  public Object remove(String name) {
+    Beans beans = beans(Vertx.currentContext());
+    beans.destructionCallbacks.remove(name);
+    return beans.instances.remove(name);
+  }
+
+  @Override
+  public void registerDestructionCallback(String name, Runnable callback) {
+    beans(Vertx.currentContext()).destructionCallbacks.put(name, callback);
+  }
+
+  @Override
+  public Object resolveContextualObject(String key) {
+    return null;
+  }
+
+  @Override
+  public String getConversationId() {
+    Context context = Vertx.currentContext();
+    return context != null ? context.deploymentID() : null;
+  }
+
+  @Override
+  public void destroy() {
+    for (Beans beans : contextBeans) {
+      beans.destroy();
+    }
+    contextBeans.clear();
+    noContextBeans.destroy();
+  }
+
+  private Beans beans(Context context) {
+    if (context == null) {
+      return noContextBeans;
+    }
+    Binding binding = current.get();
+    if (binding != null && binding.context == context) {
+      return binding.beans;
+    }
+    Beans beans;
+    // the local data of a context is behind a lock, only go there when the thread changes context
+    synchronized (context) {
+      beans = context.get(BEANS_KEY);
+      if (beans == null) {
+        beans = new Beans();
+        context.put(BEANS_KEY, beans);
+        contextBeans.add(beans);
+        if (context instanceof ContextImpl) {
+          Beans closing = beans;
+          ((ContextImpl) context).addCloseHook((completion) -> {
+            if (contextBeans.remove(closing)) {
+              closing.destroy();
+            }
+            completion.handle(Future.succeededFuture());
+          });
+        }
+      }
+    }
+    current.set(new Binding(context, beans));
+    return beans;
+  }
+
+  /**
+   * The instances of a context, with their destruction callbacks.
+   */
+  private static final class Beans {
+
+    final Map<String, Object> instances = new ConcurrentHashMap<>();
+
+    final Map<String, Runnable> destructionCallbacks = new ConcurrentHashMap<>();
+
+    void destroy() {
+      for (Map.Entry<String, Runnable> callback : destructionCallbacks.entrySet()) {
+        try {
+          callback.getValue().run();
+        } catch (RuntimeException e) {
+          logger.warn("Destruction of " + callback.getKey() + " failed", e);
+        }
+      }
+      destructionCallbacks.clear();
+      instances.clear();
+    }
+  }
+
+  private static final class Binding {
+
+    final Context context;
+
+    final Beans beans;
+
+    Binding(Context context, Beans beans) {
+      this.context = context;
+      this.beans = beans;
+    }
+  }
+
+}
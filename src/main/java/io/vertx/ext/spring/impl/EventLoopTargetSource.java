@@ -0,0 +1,103 @@
+package io.vertx.ext.spring.impl;
+
+import org.springframework.aop.TargetSource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import io.netty.channel.EventLoop;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+
+/**
+ * Spreads the calls made through a proxy over a fixed number of instances, each event
+ * loop always reaching the same one.
+ * <p>Event loops are given a slot the first time they call, in turn, and the instance of
+ * a slot is created by the first call made from it, so a client binds its connection to
+ * the event loop using it. With as many slots as event loops, every event loop has its
+ * own instance. Calls made outside of Vert.x go to the first slot. No more instances than
+ * slots are ever created.
+ */
+public class EventLoopTargetSource implements TargetSource {
+
+  private final Class<?> targetClass;
+
+  private final Supplier<?> factory;
+
+  private final AtomicReferenceArray<Object> targets;
+
+  private final Map<EventLoop, Integer> slots = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextSlot = new AtomicInteger();
+
+  public EventLoopTargetSource(Class<?> targetClass, Supplier<?> factory, int size) {
+    this.targetClass = targetClass;
+    this.factory = factory;
+    this.targets = new AtomicReferenceArray<>(size);
+  }
+
+  @Override
+  public Class<?> getTargetClass() {
+    return targetClass;
+  }
+
+  @Override
+  public boolean isStatic() {
+    return false;
+  }
+
+  @Override
+  public Object getTarget() {
+    int slot = slot(Vertx.currentContext());
+    Object target = targets.get(slot);
+    if (target == null) {
+      // once per slot, and an instance which lost a race would never be closed
+      synchronized (targets) {
+        target = targets.get(slot);
+        if (target == null) {
+          target = factory.get();
+          targets.set(slot, target);
+        }
+      }
+    }
+    return target;
+  }
+
+  @Override
+  public void releaseTarget(Object target) {
+  }
+
+  /**
+   * The instances created so far.
+   */
+  public Object[] getTargets() {
+    Object[] created = new Object[targets.length()];
+    int count = 0;
+    for (int i = 0; i < targets.length(); i++) {
+      Object target = targets.get(i);
+      if (target != null) {
+        created[count++] = target;
+      }
+    }
+    Object[] result = new Object[count];
+    System.arraycopy(created, 0, result, 0, count);
+    return result;
+  }
+
+  private int slot(Context context) {
+    if (context == null) {
+      return 0;
+    }
+    EventLoop eventLoop = ((ContextInternal) context).nettyEventLoop();
+    Integer slot = slots.get(eventLoop);
+    if (slot == null) {
+      slot = slots.computeIfAbsent(eventLoop, (loop) -> nextSlot.getAndIncrement() % targets.length());
+    }
+    return slot;
+  }
+
+}
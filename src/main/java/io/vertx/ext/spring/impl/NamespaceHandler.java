@@ -3,10 +3,12 @@ package io.vertx.ext.spring.impl;
 import org.springframework.beans.factory.xml.NamespaceHandlerSupport;
 
 import io.vertx.ext.spring.impl.parser.HttpClientParser;
+import io.vertx.ext.spring.impl.parser.HttpServerParser;
 import io.vertx.ext.spring.impl.parser.JdbcParser;
 import io.vertx.ext.spring.impl.parser.RedisClientParser;
 import io.vertx.ext.spring.impl.parser.RouterParser;
 import io.vertx.ext.spring.impl.parser.VertxParser;
+import io.vertx.ext.spring.impl.parser.WorkerPoolParser;
 
 public class NamespaceHandler extends NamespaceHandlerSupport {
 
@@ -14,9 +16,11 @@ public class NamespaceHandler extends NamespaceHandlerSupport {
   public void init() {
     registerBeanDefinitionParser("vertx", new VertxParser());
     registerBeanDefinitionParser("router", new RouterParser());
+    registerBeanDefinitionParser("http-server", new HttpServerParser());
     registerBeanDefinitionParser("http-client", new HttpClientParser());
     registerBeanDefinitionParser("jdbc", new JdbcParser());
     registerBeanDefinitionParser("redis", new RedisClientParser());
+    registerBeanDefinitionParser("worker-pool", new WorkerPoolParser());
   }
 
 }
\ No newline at end of file
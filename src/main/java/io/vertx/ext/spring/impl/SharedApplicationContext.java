@@ -0,0 +1,54 @@
+package io.vertx.ext.spring.impl;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An application context served by the instances of one deployment, closed when the last of
+ * them stops or when the deployment fails.
+ */
+public class SharedApplicationContext {
+
+  private final ApplicationContext applicationContext;
+
+  private final AtomicInteger instances = new AtomicInteger();
+
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  public SharedApplicationContext(ApplicationContext applicationContext) {
+    this.applicationContext = applicationContext;
+  }
+
+  public ApplicationContext get() {
+    return applicationContext;
+  }
+
+  void started() {
+    instances.incrementAndGet();
+  }
+
+  /**
+   * Whether the instance stopping was the last one.
+   */
+  boolean stopped() {
+    return instances.decrementAndGet() == 0;
+  }
+
+  /**
+   * Closes the context once, blocking until its beans are destroyed.
+   */
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      close(applicationContext);
+    }
+  }
+
+  static void close(ApplicationContext applicationContext) {
+    if (applicationContext instanceof ConfigurableApplicationContext) {
+      ((ConfigurableApplicationContext) applicationContext).close();
+    }
+  }
+}
@@ -4,6 +4,7 @@ import org.springframework.context.ApplicationContext;
 
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.ext.spring.ContextFactory;
 import io.vertx.ext.web.Router;
@@ -15,12 +16,15 @@ public class SpringHttpVerticle extends AbstractVerticle {
 
     private ContextFactory factory;
 
+    private SharedApplicationContext shared;
+
     private ApplicationContext applicationContext;
 
     private HttpServerOptions options;
 
-    public SpringHttpVerticle(ApplicationContext applicationContext, HttpServerOptions options) {
-        this.applicationContext = applicationContext;
+    public SpringHttpVerticle(SharedApplicationContext shared, HttpServerOptions options) {
+        this.shared = shared;
+        this.applicationContext = shared.get();
         this.options = options;
     }
 
@@ -31,13 +35,23 @@ public class SpringHttpVerticle extends AbstractVerticle {
 
     @Override
     public void start(Future<Void> startFuture) throws Exception {
+        if (shared != null) {
+            // built once and shared with the other instances
+            Future<Void> listening = Future.future();
+            listening.setHandler((ar) -> {
+                if (ar.succeeded()) {
+                    shared.started();
+                }
+                startFuture.handle(ar);
+            });
+            listen(listening);
+            return;
+        }
         vertx.executeBlocking((f) -> {
             try {
                 VertxHolder.set(getVertx());
 
-                if (factory != null && applicationContext == null) {
-                    applicationContext = factory.create();
-                }
+                applicationContext = factory.create();
                 f.complete(applicationContext);
             } catch (Exception e) {
                 f.fail(e);
@@ -45,14 +59,68 @@ public class SpringHttpVerticle extends AbstractVerticle {
         }, (ar) -> {
             if (ar.failed()) {
                 startFuture.fail(ar.cause());
-            } else {
-                Router router = applicationContext.getBean(Router.class);
-                vertx.createHttpServer(options)
-                        .requestHandler(router::accept)
-                        .listen();
-                startFuture.complete(null);
+                return;
             }
+            Future<Void> listening = Future.future();
+            listening.setHandler((listened) -> {
+                if (listened.succeeded()) {
+                    startFuture.complete();
+                } else {
+                    // stop is not called for a verticle which failed to start
+                    close((v) -> startFuture.fail(listened.cause()));
+                }
+            });
+            listen(listening);
         });
     }
 
+    @Override
+    public void stop(Future<Void> stopFuture) throws Exception {
+        if (shared != null ? shared.stopped() : applicationContext != null) {
+            close((v) -> stopFuture.complete());
+        } else {
+            stopFuture.complete();
+        }
+    }
+
+    /**
+     * Closes the application context of the verticle, its beans may block while destroyed.
+     */
+    private void close(Handler<Void> done) {
+        vertx.<Void>executeBlocking((f) -> {
+            if (shared != null) {
+                shared.close();
+            } else {
+                SharedApplicationContext.close(applicationContext);
+            }
+            f.complete();
+        }, false, (ar) -> done.handle(null));
+    }
+
+    private void listen(Future<Void> startFuture) {
+        Router router = applicationContext.getBean(Router.class);
+        vertx.createHttpServer(serverOptions())
+                .requestHandler(router::accept)
+                .listen((ar) -> {
+                    if (ar.failed()) {
+                        startFuture.fail(ar.cause());
+                    } else {
+                        startFuture.complete();
+                    }
+                });
+    }
+
+    /**
+     * The options given to the verticle, else the ones declared by {@code <vertx:http-server>}.
+     */
+    private HttpServerOptions serverOptions() {
+        if (options != null) {
+            return options;
+        }
+        String[] declared = applicationContext.getBeanNamesForType(HttpServerOptions.class);
+        return declared.length > 0
+                ? applicationContext.getBean(declared[0], HttpServerOptions.class)
+                : new HttpServerOptions();
+    }
+
 }
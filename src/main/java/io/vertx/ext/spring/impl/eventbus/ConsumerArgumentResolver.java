@@ -0,0 +1,15 @@
+package io.vertx.ext.spring.impl.eventbus;
+
+import io.vertx.core.eventbus.Message;
+
+/**
+ * Resolves one argument of a {@link io.vertx.ext.spring.annotation.VertxConsumer} method
+ * from the current message.
+ * <p>Resolvers are built once per consumer method when it is registered.
+ */
+@FunctionalInterface
+interface ConsumerArgumentResolver {
+
+    Object resolve(Message<Object> message);
+
+}
@@ -0,0 +1,246 @@
+package io.vertx.ext.spring.impl.eventbus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.spring.annotation.ConsumerHeader;
+import io.vertx.ext.spring.annotation.VertxConsumer;
+import io.vertx.ext.spring.impl.handler.HandlerInvoker;
+import io.vertx.ext.spring.impl.handler.HandlerInvokers;
+import io.vertx.ext.spring.impl.handler.JsonCodec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registers the {@link VertxConsumer} methods of the beans of the context on the event bus,
+ * and unregisters them when the context closes.
+ * <p>Methods are called through the same {@link HandlerInvoker} as router handlers, with
+ * arguments resolved once from the method signature. A consumer is registered when its
+ * bean is created, on the Vert.x context creating it.
+ */
+public class ConsumerRegistrar implements BeanPostProcessor, DisposableBean {
+
+    private static Logger logger = LoggerFactory.getLogger(ConsumerRegistrar.class);
+
+    private static final int FAILURE_CODE = 500;
+
+    @Autowired
+    Vertx vertx;
+
+    private HandlerInvoker.Mode invoker = HandlerInvoker.Mode.METHOD_HANDLE;
+
+    private JsonCodec codec = new JsonCodec(null);
+
+    private final List<MessageConsumer<?>> consumers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean codecRegistered;
+
+    public void setInvoker(HandlerInvoker.Mode invoker) {
+        this.invoker = invoker;
+    }
+
+    /**
+     * The mapper decoding bodies sent as JSON, the one of the routes.
+     */
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.codec = new JsonCodec(objectMapper);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Method method : ClassUtils.getUserClass(bean).getMethods()) {
+            VertxConsumer mapping = method.getAnnotation(VertxConsumer.class);
+            if (mapping != null) {
+                register(bean, method, mapping);
+            }
+        }
+        return bean;
+    }
+
+    private void register(Object bean, Method method, VertxConsumer mapping) {
+        if (!codecRegistered) {
+            LocalCodec.register(vertx.eventBus());
+            codecRegistered = true;
+        }
+        HandlerInvoker handlerInvoker = HandlerInvokers.create(bean, method, invoker);
+        ConsumerArgumentResolver[] resolvers = resolvers(method);
+        // a reply may go to another JVM unless the consumer or the event bus is local
+        JsonCodec.Encoder replyEncoder = mapping.local() || !vertx.isClustered()
+                ? null
+                : codec.encoder(replyType(method));
+        Handler<Message<Object>> handler = (message) -> {
+            try {
+                Object[] args = new Object[resolvers.length];
+                for (int i = 0; i < resolvers.length; i++) {
+                    args[i] = resolvers[i].resolve(message);
+                }
+                reply(message, handlerInvoker.invoke(args), replyEncoder);
+            } catch (Throwable e) {
+                fail(message, e);
+            }
+        };
+        if (mapping.worker()) {
+            Handler<Message<Object>> blocking = handler;
+            handler = (message) -> vertx.executeBlocking((future) -> {
+                blocking.handle(message);
+                future.complete();
+            }, mapping.ordered(), null);
+        }
+        consumers.add(mapping.local()
+                ? vertx.eventBus().localConsumer(mapping.value(), handler)
+                : vertx.eventBus().consumer(mapping.value(), handler));
+        logger.info("Register consumer " + mapping.value() + " on " + bean.getClass().getSimpleName()
+                + "." + method.getName());
+    }
+
+    private ConsumerArgumentResolver[] resolvers(Method method) {
+        Parameter[] parameters = method.getParameters();
+        String[] paramNames = new DefaultParameterNameDiscoverer().getParameterNames(method);
+        ConsumerArgumentResolver[] resolvers = new ConsumerArgumentResolver[parameters.length];
+        boolean body = false;
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            ConsumerHeader header = parameter.getAnnotation(ConsumerHeader.class);
+            if (header != null) {
+                String name = !header.name().isEmpty() ? header.name()
+                        : !header.value().isEmpty() ? header.value()
+                        : paramNames != null ? paramNames[i] : parameter.getName();
+                String defaultValue = header.defaultValue().isEmpty() ? null : header.defaultValue();
+                resolvers[i] = (message) -> {
+                    String value = message.headers().get(name);
+                    if (value == null && header.required() && defaultValue == null) {
+                        throw new IllegalArgumentException("Missing header " + name);
+                    }
+                    return value != null ? value : defaultValue;
+                };
+            } else if (parameter.getType() == Message.class) {
+                resolvers[i] = (message) -> message;
+            } else if (parameter.getType() == MultiMap.class) {
+                resolvers[i] = Message::headers;
+            } else if (!body) {
+                body = true;
+                resolvers[i] = body(parameter);
+            } else {
+                throw new IllegalStateException("More than one message body in " + method);
+            }
+        }
+        return resolvers;
+    }
+
+    private ConsumerArgumentResolver body(Parameter parameter) {
+        Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(parameter.getType());
+        JsonCodec.Decoder decoder = codec.decoder(parameter.getParameterizedType());
+        return (message) -> {
+            Object body = message.body();
+            if (body == null || type.isInstance(body)) {
+                return body;
+            }
+            // sent as JSON, the other side did not have the class at hand
+            if (body instanceof Buffer) {
+                return decoder.decode((Buffer) body);
+            } else if (body instanceof JsonObject) {
+                return decoder.convert(((JsonObject) body).getMap());
+            } else if (body instanceof JsonArray) {
+                return decoder.convert(((JsonArray) body).getList());
+            } else if (body instanceof String) {
+                return decoder.decode(Buffer.buffer((String) body));
+            }
+            throw new ClassCastException("Can not convert a " + body.getClass().getName() + " message to "
+                    + type.getName());
+        };
+    }
+
+    /**
+     * The declared type of the reply, the result type of a returned future.
+     */
+    private static Type replyType(Method method) {
+        Class<?> returnType = method.getReturnType();
+        Class<?> container = Future.class.isAssignableFrom(returnType) ? Future.class
+                : CompletionStage.class.isAssignableFrom(returnType) ? CompletionStage.class
+                : null;
+        if (container == null) {
+            return method.getGenericReturnType();
+        }
+        ResolvableType argument = ResolvableType.forMethodReturnType(method).as(container).getGeneric(0);
+        return argument == ResolvableType.NONE ? Object.class : argument.getType();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void reply(Message<Object> message, Object returnValue, JsonCodec.Encoder replyEncoder) {
+        if (returnValue instanceof Future) {
+            ((Future<Object>) returnValue).setHandler((AsyncResult<Object> ar) -> {
+                if (ar.succeeded()) {
+                    send(message, ar.result(), replyEncoder);
+                } else {
+                    fail(message, ar.cause());
+                }
+            });
+        } else if (returnValue instanceof CompletionStage) {
+            ((CompletionStage<Object>) returnValue).whenComplete((result, failure) -> {
+                if (failure == null) {
+                    send(message, result, replyEncoder);
+                } else {
+                    fail(message, failure);
+                }
+            });
+        } else {
+            send(message, returnValue, replyEncoder);
+        }
+    }
+
+    /**
+     * Replies with the value, by reference when the encoder is {@code null} and as JSON
+     * otherwise, unless the event bus has a codec of its own for it.
+     */
+    private static void send(Message<Object> message, Object reply, JsonCodec.Encoder replyEncoder) {
+        if (message.replyAddress() == null) {
+            return;
+        }
+        if (reply == null || LocalCodec.hasDefaultCodec(reply)) {
+            message.reply(reply);
+        } else if (replyEncoder == null) {
+            message.reply(reply, LocalCodec.deliveryOptions());
+        } else {
+            message.reply(replyEncoder.encode(reply));
+        }
+    }
+
+    private static void fail(Message<Object> message, Throwable failure) {
+        logger.error(failure);
+        if (message.replyAddress() != null) {
+            message.fail(FAILURE_CODE, failure.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        consumers.forEach(MessageConsumer::unregister);
+        consumers.clear();
+    }
+}
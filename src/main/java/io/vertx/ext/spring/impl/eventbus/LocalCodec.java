@@ -0,0 +1,76 @@
+package io.vertx.ext.spring.impl.eventbus;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.impl.ClusterSerializable;
+
+/**
+ * Passes message bodies by reference, for messages which never leave the JVM.
+ * <p>The receiver gets the very object which was sent, with no copy and no encoding, so
+ * neither side should change it afterwards. Sending with this codec to a clustered
+ * consumer fails.
+ * <p>Send with {@link #deliveryOptions()} once the codec is registered on the event bus,
+ * which the consumers of a Spring context do.
+ */
+public class LocalCodec implements MessageCodec<Object, Object> {
+
+    public static final String NAME = "vertx-spring-local";
+
+    public static DeliveryOptions deliveryOptions() {
+        return new DeliveryOptions().setCodecName(NAME);
+    }
+
+    /**
+     * Registers the codec, unless another Spring context on the same Vert.x already did.
+     */
+    public static void register(EventBus eventBus) {
+        try {
+            eventBus.registerCodec(new LocalCodec());
+        } catch (IllegalStateException ignored) {
+            // already registered
+        }
+    }
+
+    /**
+     * Whether the event bus has a codec of its own for the value.
+     */
+    static boolean hasDefaultCodec(Object value) {
+        return value instanceof String || value instanceof Buffer || value instanceof JsonObject
+                || value instanceof JsonArray || value instanceof byte[] || value instanceof Integer
+                || value instanceof Long || value instanceof Double || value instanceof Float
+                || value instanceof Short || value instanceof Byte || value instanceof Boolean
+                || value instanceof Character || value instanceof ReplyException
+                || value instanceof ClusterSerializable;
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, Object o) {
+        throw new IllegalStateException("The " + NAME + " codec can not send " + o.getClass().getName()
+                + " out of the JVM");
+    }
+
+    @Override
+    public Object decodeFromWire(int pos, Buffer buffer) {
+        throw new IllegalStateException("The " + NAME + " codec can not receive from another JVM");
+    }
+
+    @Override
+    public Object transform(Object o) {
+        return o;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
@@ -1,43 +1,133 @@
 package io.vertx.ext.spring.impl.factory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.spring.impl.metrics.ClientMetrics;
+import io.vertx.ext.spring.impl.metrics.HttpClientPoolMetrics;
 
-public class HttpClientFactory implements FactoryBean<HttpClient> {
+public class HttpClientFactory implements FactoryBean<HttpClient>, DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(HttpClientFactory.class);
 
   @Autowired
   Vertx vertx;
 
-  private boolean keepAlive;
+  private final HttpClientOptions options = new HttpClientOptions().setUsePooledBuffers(true);
+
+  private HttpClientPoolMetrics metrics;
+
+  private int warmUp;
 
-  private int maxPoolSize;
+  private String warmUpUri = "/";
 
-  private boolean pipelining;
+  private HttpClient client;
 
   public void setKeepAlive(boolean keepAlive) {
-    this.keepAlive = keepAlive;
+    options.setKeepAlive(keepAlive);
   }
 
   public void setMaxPoolSize(int maxPoolSize) {
-    this.maxPoolSize = maxPoolSize;
+    options.setMaxPoolSize(maxPoolSize);
   }
 
   public void setPipelining(boolean pipelining) {
-    this.pipelining = pipelining;
+    options.setPipelining(pipelining);
+  }
+
+  public void setPipeliningLimit(int pipeliningLimit) {
+    options.setPipeliningLimit(pipeliningLimit);
+  }
+
+  public void setMaxWaitQueueSize(int maxWaitQueueSize) {
+    options.setMaxWaitQueueSize(maxWaitQueueSize);
+  }
+
+  public void setHttp2MaxPoolSize(int http2MaxPoolSize) {
+    options.setHttp2MaxPoolSize(http2MaxPoolSize);
+  }
+
+  public void setHttp2MultiplexingLimit(int http2MultiplexingLimit) {
+    options.setHttp2MultiplexingLimit(http2MultiplexingLimit);
+  }
+
+  public void setHttp2ConnectionWindowSize(int http2ConnectionWindowSize) {
+    options.setHttp2ConnectionWindowSize(http2ConnectionWindowSize);
+  }
+
+  public void setIdleTimeout(int idleTimeout) {
+    options.setIdleTimeout(idleTimeout);
+  }
+
+  public void setConnectTimeout(int connectTimeout) {
+    options.setConnectTimeout(connectTimeout);
+  }
+
+  public void setDefaultHost(String defaultHost) {
+    options.setDefaultHost(defaultHost);
+  }
+
+  public void setDefaultPort(int defaultPort) {
+    options.setDefaultPort(defaultPort);
+  }
+
+  public void setTcpNoDelay(boolean tcpNoDelay) {
+    options.setTcpNoDelay(tcpNoDelay);
+  }
+
+  public void setUsePooledBuffers(boolean usePooledBuffers) {
+    options.setUsePooledBuffers(usePooledBuffers);
+  }
+
+  public void setMetrics(HttpClientPoolMetrics metrics) {
+    this.metrics = metrics;
+    options.setMetricsName(metrics.getName());
+  }
+
+  public void setWarmUp(int warmUp) {
+    this.warmUp = warmUp;
+  }
+
+  public void setWarmUpUri(String warmUpUri) {
+    this.warmUpUri = warmUpUri;
   }
 
   @Override
   public HttpClient getObject() throws Exception {
+    // an event-loop scoped factory is asked again for every lookup
+    if (client == null) {
+      if (metrics != null) {
+        ClientMetrics clientMetrics = ClientMetrics.of(vertx);
+        if (clientMetrics != null) {
+          clientMetrics.register(metrics);
+        } else {
+          logger.warn("The pool of " + options.getMetricsName() + " is not measured, " +
+            "the Vert.x instance must be created with VertxSpring.metricsOptions()");
+        }
+      }
+      client = vertx.createHttpClient(new HttpClientOptions(options));
+      warmUp(client);
+    }
+    return client;
+  }
 
-    return vertx.createHttpClient(new HttpClientOptions()
-      .setUsePooledBuffers(true)
-      .setKeepAlive(keepAlive)
-      .setMaxPoolSize(maxPoolSize)
-      .setPipelining(pipelining));
+  /**
+   * Opens the first connections of the pool with as many concurrent requests to the
+   * default host, so the first calls do not pay for the connection.
+   */
+  private void warmUp(HttpClient client) {
+    for (int i = 0; i < warmUp; i++) {
+      client.head(warmUpUri, (response) -> {
+      })
+        .exceptionHandler((e) -> logger.warn("Warm up of " + options.getMetricsName() + " failed: " + e.getMessage()))
+        .end();
+    }
   }
 
   @Override
@@ -50,4 +140,15 @@ public class HttpClientFactory implements FactoryBean<HttpClient> {
     return true;
   }
 
+  @Override
+  public void destroy() {
+    if (client != null) {
+      try {
+        client.close();
+      } catch (IllegalStateException ignored) {
+        // already closed with the verticle which created it
+      }
+    }
+  }
+
 }
@@ -0,0 +1,103 @@
+package io.vertx.ext.spring.impl.factory;
+
+import org.springframework.beans.factory.FactoryBean;
+
+import io.vertx.core.http.HttpServerOptions;
+
+/**
+ * The {@link HttpServerOptions} declared by {@code <vertx:http-server>}, anything left out
+ * keeps the Vert.x default.
+ */
+public class HttpServerOptionsFactory implements FactoryBean<HttpServerOptions> {
+
+  private final HttpServerOptions options = new HttpServerOptions();
+
+  public void setHost(String host) {
+    options.setHost(host);
+  }
+
+  public void setPort(int port) {
+    options.setPort(port);
+  }
+
+  public void setCompression(boolean compression) {
+    options.setCompressionSupported(compression);
+  }
+
+  public void setCompressionLevel(int compressionLevel) {
+    options.setCompressionSupported(true).setCompressionLevel(compressionLevel);
+  }
+
+  public void setHttp2MaxConcurrentStreams(long maxConcurrentStreams) {
+    options.getInitialSettings().setMaxConcurrentStreams(maxConcurrentStreams);
+  }
+
+  public void setHttp2ConnectionWindowSize(int connectionWindowSize) {
+    options.setHttp2ConnectionWindowSize(connectionWindowSize);
+  }
+
+  public void setTcpNoDelay(boolean tcpNoDelay) {
+    options.setTcpNoDelay(tcpNoDelay);
+  }
+
+  public void setTcpFastOpen(boolean tcpFastOpen) {
+    options.setTcpFastOpen(tcpFastOpen);
+  }
+
+  public void setTcpQuickAck(boolean tcpQuickAck) {
+    options.setTcpQuickAck(tcpQuickAck);
+  }
+
+  public void setReusePort(boolean reusePort) {
+    options.setReusePort(reusePort);
+  }
+
+  public void setAcceptBacklog(int acceptBacklog) {
+    options.setAcceptBacklog(acceptBacklog);
+  }
+
+  public void setIdleTimeout(int idleTimeout) {
+    options.setIdleTimeout(idleTimeout);
+  }
+
+  public void setSendBufferSize(int sendBufferSize) {
+    options.setSendBufferSize(sendBufferSize);
+  }
+
+  public void setReceiveBufferSize(int receiveBufferSize) {
+    options.setReceiveBufferSize(receiveBufferSize);
+  }
+
+  public void setDecoderInitialBufferSize(int decoderInitialBufferSize) {
+    options.setDecoderInitialBufferSize(decoderInitialBufferSize);
+  }
+
+  public void setMaxInitialLineLength(int maxInitialLineLength) {
+    options.setMaxInitialLineLength(maxInitialLineLength);
+  }
+
+  public void setMaxHeaderSize(int maxHeaderSize) {
+    options.setMaxHeaderSize(maxHeaderSize);
+  }
+
+  public void setMaxChunkSize(int maxChunkSize) {
+    options.setMaxChunkSize(maxChunkSize);
+  }
+
+  @Override
+  public HttpServerOptions getObject() throws Exception {
+    // each server gets its own copy, the options are not meant to be shared
+    return new HttpServerOptions(options);
+  }
+
+  @Override
+  public Class<?> getObjectType() {
+    return HttpServerOptions.class;
+  }
+
+  @Override
+  public boolean isSingleton() {
+    return false;
+  }
+
+}
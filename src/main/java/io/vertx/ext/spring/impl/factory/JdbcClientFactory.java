@@ -1,5 +1,8 @@
 package io.vertx.ext.spring.impl.factory;
 
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.InvalidPropertyException;
 import org.springframework.beans.factory.FactoryBean;
@@ -9,12 +12,30 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 
 import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.ext.jdbc.JDBCClient;
+import io.vertx.ext.sql.SQLConnection;
+import io.vertx.ext.sql.SQLOperations;
+import io.vertx.ext.sql.SQLOptions;
 
 public class JdbcClientFactory implements InitializingBean, ApplicationContextAware, FactoryBean<JDBCClient> {
 
+  private static final Set<String> OPERATIONS = new HashSet<>();
+
+  static {
+    for (Method method : SQLOperations.class.getMethods()) {
+      OPERATIONS.add(method.getName());
+    }
+  }
+
   @Autowired
   Vertx vertx;
 
@@ -24,13 +45,82 @@ public class JdbcClientFactory implements InitializingBean, ApplicationContextAw
 
   private ApplicationContext applicationContext;
 
+  private SQLOptions options;
+
   public void setDataSourceRef(String dataSourceRef) {
     this.dataSourceRef = dataSourceRef;
   }
 
+  public void setFetchSize(int fetchSize) {
+    options().setFetchSize(fetchSize);
+  }
+
+  public void setQueryTimeout(int queryTimeout) {
+    options().setQueryTimeout(queryTimeout);
+  }
+
+  private SQLOptions options() {
+    if (options == null) {
+      options = new SQLOptions();
+    }
+    return options;
+  }
+
   @Override
   public JDBCClient getObject() throws Exception {
-    return JDBCClient.create(vertx, dataSource);
+    JDBCClient client = JDBCClient.create(vertx, dataSource);
+    if (options == null) {
+      return client;
+    }
+    // the connections handed out get the options of the bean
+    ProxyFactory proxyFactory = new ProxyFactory(client);
+    proxyFactory.addAdvice((MethodInterceptor) (invocation) -> {
+      Object[] args = invocation.getArguments();
+      String name = invocation.getMethod().getName();
+      if ("getConnection".equals(name) && args.length == 1) {
+        @SuppressWarnings("unchecked")
+        Handler<AsyncResult<SQLConnection>> handler = (Handler<AsyncResult<SQLConnection>>) args[0];
+        args[0] = (Handler<AsyncResult<SQLConnection>>) (ar) -> {
+          if (ar.succeeded()) {
+            ar.result().setOptions(options);
+          }
+          handler.handle(ar);
+        };
+      } else if (OPERATIONS.contains(name)) {
+        // the client runs these on a connection of its own, which would not get the options
+        Method operation = SQLOperations.class.getMethod(name, invocation.getMethod().getParameterTypes());
+        client.getConnection((ar) -> operate(ar, operation, args));
+        return ((ProxyMethodInvocation) invocation).getProxy();
+      }
+      return invocation.proceed();
+    });
+    return (JDBCClient) proxyFactory.getProxy(getClass().getClassLoader());
+  }
+
+  /**
+   * Runs a one-off operation of the client on a connection with the options, and closes it
+   * before calling back, as the client itself does.
+   */
+  @SuppressWarnings("unchecked")
+  private void operate(AsyncResult<SQLConnection> ar, Method operation, Object[] args) {
+    Handler<AsyncResult<Object>> handler = (Handler<AsyncResult<Object>>) args[args.length - 1];
+    if (ar.failed()) {
+      handler.handle(Future.failedFuture(ar.cause()));
+      return;
+    }
+    SQLConnection connection = ar.result();
+    connection.setOptions(options);
+    Object[] connectionArgs = args.clone();
+    connectionArgs[args.length - 1] = (Handler<AsyncResult<Object>>) (result) ->
+      connection.close((closed) -> handler.handle(result.failed() || closed.succeeded()
+        ? result
+        : Future.failedFuture(closed.cause())));
+    try {
+      operation.invoke(connection, connectionArgs);
+    } catch (InvocationTargetException | IllegalAccessException e) {
+      Throwable failure = e instanceof InvocationTargetException ? e.getCause() : e;
+      connection.close((closed) -> handler.handle(Future.failedFuture(failure)));
+    }
   }
 
   @Override
@@ -1,36 +1,131 @@
 package io.vertx.ext.spring.impl.factory;
 
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.SingletonTargetSource;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Arrays;
+
 import io.vertx.core.Vertx;
+import io.vertx.ext.spring.impl.EventLoopTargetSource;
+import io.vertx.ext.spring.impl.redis.RedisNearCache;
 import io.vertx.redis.RedisClient;
 import io.vertx.redis.RedisOptions;
 
-public class RedisClientFactory implements FactoryBean<RedisClient> {
+public class RedisClientFactory implements FactoryBean<RedisClient>, DisposableBean {
 
   @Autowired
   Vertx vertx;
 
-  private String host;
+  private final RedisOptions options = new RedisOptions();
+
+  private int connections = 1;
+
+  private RedisNearCache nearCache;
+
+  private RedisClient client;
+
+  private RedisClient target;
 
-  private int port;
+  private EventLoopTargetSource targets;
+
+  public RedisClientFactory() {
+    options.setTcpKeepAlive(true).setTcpNoDelay(true);
+  }
 
   public void setHost(String host) {
-    this.host = host;
+    options.setHost(host);
   }
 
   public void setPort(int port) {
-    this.port = port;
+    options.setPort(port);
+  }
+
+  public void setAuth(String auth) {
+    options.setAuth(auth);
+  }
+
+  public void setSelect(int select) {
+    options.setSelect(select);
+  }
+
+  public void setEncoding(String encoding) {
+    options.setEncoding(encoding);
+  }
+
+  public void setBinary(boolean binary) {
+    options.setBinary(binary);
+  }
+
+  public void setDomainSocketAddress(String domainSocketAddress) {
+    options.setDomainSocket(true).setDomainSocketAddress(domainSocketAddress);
+  }
+
+  public void setMasterName(String masterName) {
+    options.setMasterName(masterName);
+  }
+
+  public void setSentinels(String[] sentinels) {
+    options.setSentinels(Arrays.asList(sentinels));
+  }
+
+  public void setTcpNoDelay(boolean tcpNoDelay) {
+    options.setTcpNoDelay(tcpNoDelay);
+  }
+
+  public void setTcpKeepAlive(boolean tcpKeepAlive) {
+    options.setTcpKeepAlive(tcpKeepAlive);
+  }
+
+  public void setConnectTimeout(int connectTimeout) {
+    options.setConnectTimeout(connectTimeout);
+  }
+
+  public void setReconnectAttempts(int reconnectAttempts) {
+    options.setReconnectAttempts(reconnectAttempts);
+  }
+
+  public void setReconnectInterval(long reconnectInterval) {
+    options.setReconnectInterval(reconnectInterval);
+  }
+
+  public void setConnections(int connections) {
+    this.connections = connections;
+  }
+
+  public void setNearCache(RedisNearCache nearCache) {
+    this.nearCache = nearCache;
   }
 
   @Override
   public RedisClient getObject() throws Exception {
-    return RedisClient.create(vertx, (RedisOptions) new RedisOptions()
-      .setHost(host)
-      .setPort(port)
-      .setTcpKeepAlive(true)
-      .setTcpNoDelay(true));
+    // an event-loop scoped factory is asked again for every lookup
+    if (client == null) {
+      if (connections == 1 && nearCache == null) {
+        target = RedisClient.create(vertx, new RedisOptions(options));
+        client = target;
+        return client;
+      }
+      ProxyFactory proxyFactory = new ProxyFactory();
+      proxyFactory.addInterface(RedisClient.class);
+      if (connections > 1) {
+        // the commands of an event loop go through the connection bound to that loop
+        targets = new EventLoopTargetSource(RedisClient.class,
+          () -> RedisClient.create(vertx, new RedisOptions(options)), connections);
+        proxyFactory.setTargetSource(targets);
+      } else {
+        target = RedisClient.create(vertx, new RedisOptions(options));
+        proxyFactory.setTargetSource(new SingletonTargetSource(target));
+      }
+      if (nearCache != null) {
+        nearCache.start(vertx, options);
+        proxyFactory.addAdvice(nearCache);
+      }
+      client = (RedisClient) proxyFactory.getProxy(getClass().getClassLoader());
+    }
+    return client;
   }
 
   @Override
@@ -43,4 +138,18 @@ public class RedisClientFactory implements FactoryBean<RedisClient> {
     return true;
   }
 
+  @Override
+  public void destroy() {
+    if (target != null) {
+      target.close((ar) -> {
+      });
+    }
+    if (targets != null) {
+      for (Object target : targets.getTargets()) {
+        ((RedisClient) target).close((ar) -> {
+        });
+      }
+    }
+  }
+
 }
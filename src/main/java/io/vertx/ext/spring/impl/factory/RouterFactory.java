@@ -1,36 +1,45 @@
 package io.vertx.ext.spring.impl.factory;
 
-import io.vertx.core.buffer.Buffer;
-import io.vertx.core.http.HttpServerRequest;
-import io.vertx.core.http.HttpServerResponse;
-import io.vertx.core.json.Json;
-import io.vertx.core.json.JsonObject;
-import io.vertx.ext.auth.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.vertx.ext.spring.annotation.*;
-import io.vertx.ext.web.Session;
+import io.vertx.ext.spring.impl.handler.ArgumentResolver;
+import io.vertx.ext.spring.impl.handler.ArgumentResolvers;
+import io.vertx.ext.spring.impl.handler.BodyWriter;
+import io.vertx.ext.spring.impl.handler.HandlerInvoker;
+import io.vertx.ext.spring.impl.handler.HandlerInvokers;
+import io.vertx.ext.spring.impl.handler.JsonCodec;
+import io.vertx.ext.spring.impl.handler.RequestBodyHandler;
+import io.vertx.ext.spring.impl.handler.RequestTimeout;
+import io.vertx.ext.spring.impl.handler.ResponseCache;
+import io.vertx.ext.spring.impl.handler.RouteLimiter;
+import io.vertx.ext.spring.impl.handler.ReturnValueHandler;
+import io.vertx.ext.spring.impl.handler.ReturnValueHandlers;
+import io.vertx.ext.spring.impl.handler.RouteTable;
+import io.vertx.ext.spring.impl.handler.WorkerPool;
+import io.vertx.ext.spring.impl.index.RouterIndex;
+import io.vertx.ext.spring.impl.metrics.RouteMetrics;
+import io.vertx.ext.spring.impl.metrics.RouterMetrics;
 import org.springframework.beans.BeansException;
-import org.springframework.beans.TypeMismatchException;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
-import org.springframework.core.DefaultParameterNameDiscoverer;
-import org.springframework.core.convert.ConversionService;
-import org.springframework.format.support.DefaultFormattingConversionService;
-import org.springframework.util.ClassUtils;
 
 public class RouterFactory implements ApplicationContextAware, FactoryBean<Router> {
 
@@ -41,12 +50,85 @@ public class RouterFactory implements ApplicationContextAware, FactoryBean<Route
 
     private ApplicationContext applicationContext;
 
+    private HandlerInvoker.Mode invoker = HandlerInvoker.Mode.METHOD_HANDLE;
+
+    private long bodyLimit = BodyHandler.DEFAULT_BODY_LIMIT;
+
+    private String uploadsDirectory;
+
+    private long timeout;
+
+    private ObjectMapper objectMapper;
+
+    private RouterMetrics metrics;
+
+    private String metricsPath;
+
+    private RouterIndex routeIndex;
+
+    private boolean scanUnindexed;
+
+    private JsonCodec codec;
+
+    private RouteTable routeTable;
+
+    public void setInvoker(HandlerInvoker.Mode invoker) {
+        this.invoker = invoker;
+    }
+
+    public void setBodyLimit(long bodyLimit) {
+        this.bodyLimit = bodyLimit;
+    }
+
+    public void setUploadsDirectory(String uploadsDirectory) {
+        this.uploadsDirectory = uploadsDirectory;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void setMetrics(RouterMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setMetricsPath(String metricsPath) {
+        this.metricsPath = metricsPath;
+    }
+
+    public void setRouteIndex(RouterIndex routeIndex) {
+        this.routeIndex = routeIndex;
+    }
+
+    public void setScanUnindexed(boolean scanUnindexed) {
+        this.scanUnindexed = scanUnindexed;
+    }
+
     @Override
     public Router getObject() throws Exception {
         Router router = Router.router(vertx);
-        Map<String, Object> handlers = applicationContext.getBeansWithAnnotation(
-                VertxRouter.class);
-        handlers.values().forEach((handler) -> registerHandlers(router, handler));
+        codec = new JsonCodec(objectMapper);
+        // first route of the router, handler routes the table cannot hold are added after it
+        routeTable = new RouteTable();
+        router.route().handler(routeTable).failureHandler(routeTable.failureHandler(RouterFactory::handleFailure));
+        Set<String> indexed = routeIndex != null ? registerIndexedHandlers(router) : Collections.emptySet();
+        if (routeIndex == null || scanUnindexed) {
+            Map<String, Object> handlers = applicationContext.getBeansWithAnnotation(
+                    VertxRouter.class);
+            for (Object handler : handlers.values()) {
+                // controllers missing from a partial index
+                if (!indexed.contains(ClassUtils.getUserClass(handler).getName())) {
+                    registerHandlers(router, handler);
+                }
+            }
+        }
+        if (metrics != null && metricsPath != null) {
+            router.get(metricsPath).handler(metrics.handler());
+        }
         return router;
     }
 
@@ -65,7 +147,7 @@ public class RouterFactory implements ApplicationContextAware, FactoryBean<Route
         this.applicationContext = applicationContext;
     }
 
-    private static void registerHandlers(Router router, Object handler) {
+    private void registerHandlers(Router router, Object handler) {
         VertxRouter controller = handler.getClass().getAnnotation(VertxRouter.class);
         for (Method method : handler.getClass().getMethods()) {
             RouterHandler mapping = method.getAnnotation(RouterHandler.class);
@@ -75,210 +157,176 @@ public class RouterFactory implements ApplicationContextAware, FactoryBean<Route
         }
     }
 
-    private static void registerMethod(Router router,
-                                       Object handler, Method method,
-                                       VertxRouter controller, RouterHandler mapping) {
-        if (mapping.method() == HttpMethod.POST || mapping.method() == HttpMethod.PUT) {
-            router.route(mapping.method(), controller.value() + mapping.value())
-                    .handler(BodyHandler.create());
+    private Set<String> registerIndexedHandlers(Router router) throws ClassNotFoundException {
+        Map<String, Class<?>> controllerClasses = new HashMap<>();
+        Map<Class<?>, Object> handlers = new HashMap<>();
+        for (RouterIndex.Entry entry : routeIndex.getEntries()) {
+            Class<?> controllerClass = controllerClasses.get(entry.getController());
+            if (controllerClass == null) {
+                controllerClass = ClassUtils.forName(entry.getController(), applicationContext.getClassLoader());
+                controllerClasses.put(entry.getController(), controllerClass);
+            }
+            Object handler = handlers.computeIfAbsent(controllerClass, applicationContext::getBean);
+            Method method = entry.resolve(controllerClass);
+            registerMethod(router, handler, method, controllerClass.getAnnotation(VertxRouter.class),
+                    method.getAnnotation(RouterHandler.class));
+        }
+        return controllerClasses.keySet();
+    }
+
+    private void registerMethod(Router router,
+                                Object handler, Method method,
+                                VertxRouter controller, RouterHandler mapping) {
+        HandlerInvoker handlerInvoker = HandlerInvokers.create(handler, method, invoker);
+        String path = controller.value() + mapping.value();
+        boolean tabled = RouteTable.supports(path);
+        boolean streamsBody = ArgumentResolvers.streamsRequestBody(method);
+        Handler<RoutingContext> bodyHandler = null;
+        if (streamsBody || mapping.method() == HttpMethod.POST || mapping.method() == HttpMethod.PUT
+                || mapping.method() == HttpMethod.PATCH) {
+            long routeBodyLimit = mapping.bodyLimit() >= 0 ? mapping.bodyLimit() : bodyLimit;
+            bodyHandler = streamsBody
+                    ? RequestBodyHandler.streaming(routeBodyLimit)
+                    : RequestBodyHandler.buffered(routeBodyLimit, uploadsDirectory);
+            if (!tabled) {
+                router.route(mapping.method(), path).handler(bodyHandler);
+            }
         }
-        if (mapping.worker()) {
-            router.route(mapping.method(), controller.value() + mapping.value())
-                    .blockingHandler(new RouterHandlerImpl(handler, method, mapping.method(), mapping.value()))
-                    .failureHandler((ctx) -> {
-                        logger.error(ctx.failure());
-                        ctx.response()
-                                .setStatusCode(500)
-                                .setStatusMessage(ctx.failure().getMessage());
-                    });
+        ResponseCache cache = null;
+        RouterCache cacheMapping = method.getAnnotation(RouterCache.class);
+        if (cacheMapping != null) {
+            if (mapping.method() != HttpMethod.GET) {
+                throw new IllegalStateException("@RouterCache only applies to GET handlers, not to " +
+                        handler.getClass().getSimpleName() + "." + method.getName());
+            }
+            cache = new ResponseCache(cacheMapping);
+        }
+        Handler<RoutingContext> routeHandler = new RouterHandlerImpl(handler, method, handlerInvoker, codec,
+                cache != null ? cache : BodyWriter.END, mapping.method(), mapping.value());
+        long routeTimeout = mapping.timeout() >= 0 ? mapping.timeout() : timeout;
+        if (routeTimeout > 0) {
+            routeHandler = RequestTimeout.execution(routeHandler);
+        }
+        RouteMetrics routeMetrics = metrics != null
+                ? metrics.register(mapping.method(), path)
+                : null;
+        if (mapping.worker() || !mapping.workerPool().isEmpty()) {
+            if (routeMetrics != null) {
+                routeHandler = routeMetrics.execution(routeHandler);
+            }
+            if (!mapping.workerPool().isEmpty()) {
+                WorkerPool pool = applicationContext.getBean(mapping.workerPool(), WorkerPool.class);
+                routeHandler = pool.blockingHandler(routeHandler, mapping.ordered());
+            } else {
+                routeHandler = WorkerPool.defaultBlockingHandler(vertx, routeHandler, mapping.ordered());
+            }
+        }
+        if (routeTimeout > 0) {
+            routeHandler = new RequestTimeout(vertx, routeTimeout).arrival(routeHandler);
+        }
+        RouterLimit limitMapping = method.getAnnotation(RouterLimit.class);
+        if (limitMapping != null) {
+            routeHandler = new RouteLimiter(limitMapping).handler(routeHandler);
+        }
+        if (cache != null) {
+            routeHandler = cache.handler(routeHandler);
+        }
+        if (routeMetrics != null) {
+            routeHandler = routeMetrics.arrival(routeHandler);
+        }
+        if (tabled) {
+            routeTable.add(mapping.method(), path,
+                    bodyHandler != null ? RouteTable.withBody(bodyHandler, routeHandler) : routeHandler);
         } else {
-            router.route(mapping.method(), controller.value() + mapping.value())
-                    .handler(new RouterHandlerImpl(handler, method, mapping.method(), mapping.value()))
-                    .failureHandler((ctx) -> {
-                        logger.error(ctx.failure());
-                        ctx.response()
-                                .setStatusCode(500)
-                                .setStatusMessage(ctx.failure().getMessage());
-                    });
+            router.route(mapping.method(), path)
+                    .handler(routeHandler)
+                    .failureHandler(RouterFactory::handleFailure);
         }
         logger.info("Register handler " +
                 mapping.method() + " " +
-                controller.value() + mapping.value() +
+                path +
                 " on " +
                 handler.getClass().getSimpleName() +
                 "." +
                 method.getName());
     }
 
-    private static class RouterHandlerImpl implements Handler<RoutingContext> {
-        static ConversionService conversionService = new DefaultFormattingConversionService();
+    private static void handleFailure(RoutingContext ctx) {
+        Throwable failure = ctx.failure();
+        if (failure != null) {
+            logger.error(failure);
+        }
+        HttpServerResponse response = ctx.response();
+        if (response.ended()) {
+            return;
+        }
+        if (response.headWritten()) {
+            // part of the response is already on the wire, all we can do is to drop it
+            response.close();
+            return;
+        }
+        response.setStatusCode(ctx.statusCode() != -1 ? ctx.statusCode() : 500);
+        if (failure != null && failure.getMessage() != null) {
+            // a reason phrase must fit on the status line
+            response.setStatusMessage(failure.getMessage().replace('\r', ' ').replace('\n', ' '));
+        }
+        response.end();
+    }
+
+    static class RouterHandlerImpl implements Handler<RoutingContext> {
+        static final Object[] NO_ARGS = new Object[0];
 
         Object handler;
         Method method;
+        HandlerInvoker invoker;
         HttpMethod httpMethod;
         String routerUrl;
-        Map<String, String> uriTemplateVariables;
+        ArgumentResolver[] resolvers;
+        ReturnValueHandler returnValueHandler;
 
-        RouterHandlerImpl(Object handler, Method method, HttpMethod httpMethod, String routerUrl) {
+        RouterHandlerImpl(Object handler, Method method, HandlerInvoker invoker, JsonCodec codec,
+                          BodyWriter writer, HttpMethod httpMethod, String routerUrl) {
             this.handler = handler;
             this.method = method;
+            this.invoker = invoker;
             this.httpMethod = httpMethod;
             this.routerUrl = routerUrl;
+            this.resolvers = ArgumentResolvers.forMethod(handler, method, codec);
+            this.returnValueHandler = ReturnValueHandlers.forMethod(method, codec, writer);
         }
 
         @Override
         public void handle(RoutingContext context) {
-            logger.debug(context.request().method().toString() + " " + context.request().uri());
+            if (logger.isDebugEnabled()) {
+                logger.debug(context.request().method() + " " + context.request().uri());
+            }
 
             try {
                 Object methodReturnValue = null;
 
-                // get all the required properties by the method
-                if(method.getParameterCount() > 0) {
-                    int argIndex = 0;
-                    Object[] args = new Object[method.getParameterCount()];
-
-                    DefaultParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
-                    String[] paramNames = discoverer.getParameterNames(method);
-
-                    Parameter[] parameters = method.getParameters();
-                    for (Parameter parameter : parameters) {
-                        Object arg = null;
-
-                        if(parameter.getType().isAssignableFrom(Locale.class)) {
-                            arg = context.preferredLanguage();
-
-                        } else if(parameter.getType().isAssignableFrom(User.class)) {
-                            arg = context.user();
-
-                        } else if(parameter.getType().isAssignableFrom(Session.class)) {
-                            arg = context.session();
-
-                        } else if(parameter.getType().isAssignableFrom(RoutingContext.class)) {
-                            arg = context;
-
-                        } else if(parameter.getType().isAssignableFrom(HttpServerRequest.class)) {
-                            arg = context.request();
-
-                        } else if(parameter.getType().isAssignableFrom(HttpServerResponse.class)) {
-                            arg = context.response();
-
-                        } else {
-                            RouterParam routerParam = parameter.getAnnotation(RouterParam.class);
-                            RouterPathVariable routerPathVariable = parameter.getAnnotation(RouterPathVariable.class);
-                            RouterHeader routerHeader = parameter.getAnnotation(RouterHeader.class);
-                            RouterRequestBody routerRequestBody = parameter.getAnnotation(RouterRequestBody.class);
-
-                            String paramName = paramNames[argIndex];
-                            String paramValue = null;
-
-                            if(routerRequestBody != null) {
-
-                                Buffer buffer = context.getBody();
-                                if(buffer != null) {
-                                    arg = Json.decodeValue(buffer, parameter.getType());
-                                }
-
-                                if(arg == null && routerRequestBody.required()) {
-                                    throwMissingRequiredParameterException(paramName);
-                                }
-
-                            } else if(routerHeader != null) {
-                                if(!routerHeader.name().isEmpty() || !routerHeader.value().isEmpty()) {
-                                    if(!routerHeader.name().isEmpty()) {
-                                        paramName = routerHeader.name();
-
-                                    } else if(!routerHeader.value().isEmpty()) {
-                                        paramName = routerHeader.value();
-                                    }
-                                }
-
-                                paramValue = context.request().getHeader(paramName);
-                                if(paramValue == null && !routerHeader.defaultValue().isEmpty()) {
-                                    paramValue = routerHeader.defaultValue();
-                                }
-
-                                if(paramValue == null && routerHeader.required()) {
-
-                                    throwMissingRequiredParameterException(paramName);
-                                } else {
-                                    arg = convertParamValue(paramValue, parameter.getType());
-                                }
-
-                            } else if(routerPathVariable != null) {
-                                if(!routerPathVariable.name().isEmpty() || !routerPathVariable.value().isEmpty()) {
-                                    if(!routerPathVariable.name().isEmpty()) {
-                                        paramName = routerPathVariable.name();
-
-                                    } else if(!routerPathVariable.value().isEmpty()) {
-                                        paramName = routerPathVariable.value();
-                                    }
-                                }
-
-                                paramValue = context.pathParam(paramName);
-                                if(paramValue == null && routerPathVariable.required()) {
-
-                                    throwMissingRequiredParameterException(paramName);
-                                } else {
-                                    arg = convertParamValue(paramValue, parameter.getType());
-                                }
-
-                            } else {
-                                if(routerParam != null && (!routerParam.name().isEmpty() || !routerParam.value().isEmpty())) {
-                                    if(!routerParam.name().isEmpty()) {
-                                        paramName = routerParam.name();
-
-                                    } else if(!routerParam.value().isEmpty()) {
-                                        paramName = routerParam.value();
-                                    }
-                                }
-
-                                paramValue = context.request().params().get(paramName);
-                                if(paramValue == null && (routerParam == null || routerParam.required())) {
-
-                                    throwMissingRequiredParameterException(paramName);
-                                } else {
-                                    arg = convertParamValue(paramValue, parameter.getType());
-                                }
-                            }
-                        }
-                        args[argIndex++] = arg;
+                // resolve the arguments using the plan built at registration time
+                if(resolvers.length > 0) {
+                    Object[] args = new Object[resolvers.length];
+                    for (int i = 0; i < resolvers.length; i++) {
+                        args[i] = resolvers[i].resolve(context);
                     }
 
-                    methodReturnValue = method.invoke(handler, args);
+                    methodReturnValue = invoker.invoke(args);
                 } else {
-                    methodReturnValue = method.invoke(handler);
+                    methodReturnValue = invoker.invoke(NO_ARGS);
                 }
 
-                // deal with an automatic response
-                if(methodReturnValue != null) {
-                    if(methodReturnValue.getClass().isAssignableFrom(String.class) || ClassUtils.isPrimitiveOrWrapper(methodReturnValue.getClass())) {
-                        context.response().end( String.valueOf(methodReturnValue) );
-                    } else {
-                        context.response().end( Json.encodeToBuffer(methodReturnValue) );
-                    }
+                if (methodReturnValue instanceof Future || methodReturnValue instanceof CompletionStage) {
+                    RequestTimeout.cancelOnTimeout(context, methodReturnValue);
                 }
 
+                // deal with an automatic response
+                returnValueHandler.handle(context, methodReturnValue);
+
             } catch (Throwable e) {
                 context.fail(e);
             }
         }
-
-        private void throwMissingRequiredParameterException(String paramName) {
-            // this is a parameter that was supposed to be sent - but it's not - throw an exception
-            throw new UnsupportedOperationException(
-                    "Handler method " +
-                            handler.getClass().getSimpleName() + "." + method.getName() +
-                            " parameter \"" + paramName + "\" is required and was not found in request parameters.");
-        }
-
-        private <T> T convertParamValue(String paramValue, Class<T> paramType) {
-            if(conversionService.canConvert(paramType, String.class)) {
-                return conversionService.convert(paramValue, paramType);
-            } else {
-                throw new TypeMismatchException(paramValue, paramType);
-            }
-        }
     }
 
 }
@@ -0,0 +1,62 @@
+package io.vertx.ext.spring.impl.factory;
+
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.spring.impl.handler.WorkerPool;
+
+public class WorkerPoolFactory implements FactoryBean<WorkerPool>, BeanNameAware, DisposableBean {
+
+  @Autowired
+  Vertx vertx;
+
+  private String name;
+
+  private int size = 20;
+
+  private int maxQueue = -1;
+
+  private WorkerPool pool;
+
+  @Override
+  public void setBeanName(String name) {
+    this.name = name;
+  }
+
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  public void setMaxQueue(int maxQueue) {
+    this.maxQueue = maxQueue;
+  }
+
+  @Override
+  public WorkerPool getObject() throws Exception {
+    if (pool == null) {
+      pool = new WorkerPool(name, vertx.createSharedWorkerExecutor(name, size), size, maxQueue);
+    }
+    return pool;
+  }
+
+  @Override
+  public Class<?> getObjectType() {
+    return WorkerPool.class;
+  }
+
+  @Override
+  public boolean isSingleton() {
+    return true;
+  }
+
+  @Override
+  public void destroy() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+}
@@ -0,0 +1,16 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Resolves one argument of a {@link io.vertx.ext.spring.annotation.RouterHandler} method
+ * from the current request.
+ * <p>Resolvers are built once per handler method when the route is registered, so
+ * implementations should only do the per-request work.
+ */
+@FunctionalInterface
+public interface ArgumentResolver {
+
+    Object resolve(RoutingContext context);
+
+}
@@ -0,0 +1,222 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.spring.annotation.*;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.Session;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds the argument resolution plan of a handler method.
+ * <p>All the reflection (parameter names, annotations, parameter types) happens here,
+ * at registration time, and the result is an immutable array of resolvers with one
+ * entry per method parameter.
+ */
+public final class ArgumentResolvers {
+
+    private static final ArgumentResolver[] NO_RESOLVERS = new ArgumentResolver[0];
+
+    private ArgumentResolvers() {
+    }
+
+    public static ArgumentResolver[] forMethod(Object handler, Method method, JsonCodec codec) {
+        if (method.getParameterCount() == 0) {
+            return NO_RESOLVERS;
+        }
+        String location = handler.getClass().getSimpleName() + "." + method.getName();
+        String[] paramNames = new DefaultParameterNameDiscoverer().getParameterNames(method);
+        Parameter[] parameters = method.getParameters();
+
+        ArgumentResolver[] resolvers = new ArgumentResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            String paramName = paramNames != null ? paramNames[i] : parameters[i].getName();
+            resolvers[i] = forParameter(parameters[i], paramName, location, codec);
+        }
+        return resolvers;
+    }
+
+    private static ArgumentResolver forParameter(Parameter parameter, String paramName, String location,
+                                                 JsonCodec codec) {
+        Class<?> type = parameter.getType();
+
+        // the body comes first, a ReadStream body would otherwise be taken for the request
+        RouterRequestBody routerRequestBody = parameter.getAnnotation(RouterRequestBody.class);
+        if (routerRequestBody != null) {
+            if (type == ReadStream.class) {
+                return bodyStream(ResolvableType.forType(parameter.getParameterizedType()).getGeneric(0), codec);
+            }
+            return body(codec.decoder(parameter.getParameterizedType()), routerRequestBody.required(),
+                    paramName, location);
+
+        } else if (type.isAssignableFrom(Locale.class)) {
+            return RoutingContext::preferredLanguage;
+
+        } else if (type.isAssignableFrom(User.class)) {
+            return RoutingContext::user;
+
+        } else if (type.isAssignableFrom(Session.class)) {
+            return RoutingContext::session;
+
+        } else if (type.isAssignableFrom(RoutingContext.class)) {
+            return (context) -> context;
+
+        } else if (type.isAssignableFrom(HttpServerRequest.class)) {
+            return RoutingContext::request;
+
+        } else if (type.isAssignableFrom(HttpServerResponse.class)) {
+            return RoutingContext::response;
+
+        } else if (type == Deadline.class) {
+            return Deadline::of;
+        }
+
+        RouterHeader routerHeader = parameter.getAnnotation(RouterHeader.class);
+        if (routerHeader != null) {
+            return header(parameter,
+                    nameOf(routerHeader.name(), routerHeader.value(), paramName),
+                    routerHeader.defaultValue().isEmpty() ? null : routerHeader.defaultValue(),
+                    routerHeader.required(), location);
+        }
+
+        RouterPathVariable routerPathVariable = parameter.getAnnotation(RouterPathVariable.class);
+        if (routerPathVariable != null) {
+            return pathVariable(type,
+                    nameOf(routerPathVariable.name(), routerPathVariable.value(), paramName),
+                    routerPathVariable.required(), location);
+        }
+
+        RouterParam routerParam = parameter.getAnnotation(RouterParam.class);
+        if (routerParam != null) {
+            return param(parameter, nameOf(routerParam.name(), routerParam.value(), paramName),
+                    routerParam.required(), location);
+        }
+        return param(parameter, paramName, true, location);
+    }
+
+    private static ArgumentResolver body(JsonCodec.Decoder decoder, boolean required, String paramName,
+                                         String location) {
+        return (context) -> {
+            Object arg = null;
+            Buffer buffer = context.getBody();
+            if (buffer != null) {
+                arg = decoder.decode(buffer);
+            }
+            if (arg == null && required) {
+                throw missingParameter(location, paramName);
+            }
+            return arg;
+        };
+    }
+
+    private static ArgumentResolver bodyStream(ResolvableType elementType, JsonCodec codec) {
+        if (elementType.resolve() == null || elementType.resolve() == Buffer.class) {
+            return (context) -> context.get(RequestBodyStream.CONTEXT_KEY);
+        }
+        JsonCodec.Decoder decoder = codec.decoder(elementType.getType());
+        return (context) -> new JsonRecordStream<>(context.get(RequestBodyStream.CONTEXT_KEY), decoder);
+    }
+
+    private static ArgumentResolver header(Parameter parameter, String name, String defaultValue,
+                                           boolean required, String location) {
+        Class<?> type = parameter.getType();
+        if (ParamConverters.isMultiValued(type)) {
+            ParamConverter element = ParamConverters.forType(elementType(parameter));
+            return (context) -> {
+                List<String> values = context.request().headers().getAll(name);
+                if (values.isEmpty() && defaultValue != null) {
+                    values = Collections.singletonList(defaultValue);
+                }
+                if (values.isEmpty() && required) {
+                    throw missingParameter(location, name);
+                }
+                return ParamConverters.convertAll(values, type, element);
+            };
+        }
+        ParamConverter converter = ParamConverters.forType(type);
+        return (context) -> {
+            String value = context.request().getHeader(name);
+            if (value == null) {
+                value = defaultValue;
+            }
+            if (value == null && required) {
+                throw missingParameter(location, name);
+            }
+            return converter.convert(value);
+        };
+    }
+
+    private static ArgumentResolver pathVariable(Class<?> type, String name, boolean required, String location) {
+        ParamConverter converter = ParamConverters.forType(type);
+        return (context) -> {
+            String value = context.pathParam(name);
+            if (value == null && required) {
+                throw missingParameter(location, name);
+            }
+            return converter.convert(value);
+        };
+    }
+
+    private static ArgumentResolver param(Parameter parameter, String name, boolean required, String location) {
+        Class<?> type = parameter.getType();
+        if (ParamConverters.isMultiValued(type)) {
+            ParamConverter element = ParamConverters.forType(elementType(parameter));
+            return (context) -> {
+                List<String> values = context.request().params().getAll(name);
+                if (values.isEmpty() && required) {
+                    throw missingParameter(location, name);
+                }
+                return ParamConverters.convertAll(values, type, element);
+            };
+        }
+        ParamConverter converter = ParamConverters.forType(type);
+        return (context) -> {
+            String value = context.request().params().get(name);
+            if (value == null && required) {
+                throw missingParameter(location, name);
+            }
+            return converter.convert(value);
+        };
+    }
+
+    private static Class<?> elementType(Parameter parameter) {
+        Class<?> elementType = ResolvableType.forType(parameter.getParameterizedType()).getGeneric(0).resolve();
+        return elementType != null ? elementType : String.class;
+    }
+
+    /**
+     * Whether the method consumes its request body as a stream rather than a buffered body.
+     */
+    public static boolean streamsRequestBody(Method method) {
+        for (Parameter parameter : method.getParameters()) {
+            if (parameter.getType() == ReadStream.class && parameter.isAnnotationPresent(RouterRequestBody.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String nameOf(String name, String value, String paramName) {
+        if (!name.isEmpty()) {
+            return name;
+        }
+        return value.isEmpty() ? paramName : value;
+    }
+
+    private static UnsupportedOperationException missingParameter(String location, String paramName) {
+        // this is a parameter that was supposed to be sent - but it's not - throw an exception
+        return new UnsupportedOperationException(
+                "Handler method " + location +
+                        " parameter \"" + paramName + "\" is required and was not found in request parameters.");
+    }
+}
@@ -0,0 +1,14 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Ends the response with the encoded return value of a handler method.
+ */
+public interface BodyWriter {
+
+    BodyWriter END = (context, body) -> context.response().end(body);
+
+    void write(RoutingContext context, Buffer body);
+}
@@ -0,0 +1,125 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Future;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The time left to answer a request of a handler with a timeout, see
+ * {@link io.vertx.ext.spring.annotation.RouterHandler#timeout()}.
+ * <p>Declared as a handler parameter, it gives the time its Redis, JDBC or HTTP calls
+ * should be bounded by. Requests of handlers without a timeout get a deadline which never
+ * expires.
+ */
+public class Deadline {
+
+    static final String KEY = Deadline.class.getName();
+
+    private static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    private final long expiresAt;
+
+    private final boolean bounded;
+
+    // guarded by this
+    private boolean expired;
+
+    private boolean started;
+
+    private Thread thread;
+
+    private Object pending;
+
+    Deadline(long timeoutMillis) {
+        this.bounded = timeoutMillis != Long.MAX_VALUE;
+        this.expiresAt = bounded ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+    }
+
+    public static Deadline of(RoutingContext context) {
+        Deadline deadline = context.get(KEY);
+        return deadline != null ? deadline : NONE;
+    }
+
+    /**
+     * Milliseconds left, {@code 0} once expired and {@link Long#MAX_VALUE} without a timeout.
+     */
+    public long remaining() {
+        return remaining(TimeUnit.MILLISECONDS);
+    }
+
+    public long remaining(TimeUnit unit) {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(Math.max(0, expiresAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return bounded && expiresAt - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Marks the handler as running on the current thread, or tells it is too late to run it.
+     */
+    synchronized boolean enter() {
+        if (expired) {
+            return false;
+        }
+        started = true;
+        thread = Thread.currentThread();
+        return true;
+    }
+
+    synchronized void exit() {
+        thread = null;
+        // an interrupt sent too late must not reach the next task of the thread
+        Thread.interrupted();
+    }
+
+    /**
+     * Cancels the returned {@link Future} or {@link CompletionStage} when the deadline expires.
+     */
+    synchronized void cancelOnExpiry(Object returnValue) {
+        if (expired) {
+            cancel(returnValue);
+        } else {
+            pending = returnValue;
+        }
+    }
+
+    /**
+     * Expires the deadline, returning whether the handler had started.
+     */
+    synchronized boolean expire() {
+        expired = true;
+        return started;
+    }
+
+    /**
+     * Interrupts the running handler and cancels its result, once the request failed.
+     */
+    synchronized void cancel() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (pending != null) {
+            cancel(pending);
+            pending = null;
+        }
+    }
+
+    private static void cancel(Object returnValue) {
+        if (returnValue instanceof Future) {
+            ((Future<?>) returnValue).tryFail(new TimeoutException("The request timed out"));
+        } else if (returnValue instanceof CompletionStage) {
+            try {
+                ((CompletionStage<?>) returnValue).toCompletableFuture().cancel(true);
+            } catch (UnsupportedOperationException ignored) {
+                // a stage which cannot be cancelled is left to complete
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.vertx.ext.spring.impl.handler;
+
+/**
+ * Calls a {@link io.vertx.ext.spring.annotation.RouterHandler} method bound to its bean.
+ * <p>Exceptions thrown by the handler method are rethrown as-is, never wrapped in an
+ * {@link java.lang.reflect.InvocationTargetException}.
+ */
+@FunctionalInterface
+public interface HandlerInvoker {
+
+    Object invoke(Object[] args) throws Throwable;
+
+    enum Mode {
+
+        /**
+         * Bind the method to a {@link java.lang.invoke.MethodHandle} at registration time,
+         * falling back to reflection when the method cannot be looked up.
+         */
+        METHOD_HANDLE,
+
+        /**
+         * Always use {@link java.lang.reflect.Method#invoke}.
+         */
+        REFLECTION
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Creates the {@link HandlerInvoker} of a handler method according to the configured
+ * {@link HandlerInvoker.Mode}.
+ */
+public final class HandlerInvokers {
+
+    private static Logger logger = LoggerFactory.getLogger(HandlerInvokers.class);
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private HandlerInvokers() {
+    }
+
+    public static HandlerInvoker create(Object handler, Method method, HandlerInvoker.Mode mode) {
+        if (mode == HandlerInvoker.Mode.METHOD_HANDLE) {
+            MethodHandle target = lookup(method);
+            if (target != null) {
+                return methodHandle(target, handler, method.getParameterCount());
+            }
+            logger.warn("Can not bind " + method + " to a method handle, falling back to reflection");
+        }
+        return reflection(handler, method);
+    }
+
+    private static HandlerInvoker methodHandle(MethodHandle target, Object handler, int parameterCount) {
+        // adapt to (Object[])Object once, so every call is an invokeExact on the same shape
+        MethodHandle invoker = target.bindTo(handler)
+                .asSpreader(Object[].class, parameterCount)
+                .asType(INVOKER_TYPE);
+        return (args) -> (Object) invoker.invokeExact(args);
+    }
+
+    private static HandlerInvoker reflection(Object handler, Method method) {
+        return (args) -> {
+            try {
+                return method.invoke(handler, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static MethodHandle lookup(Method method) {
+        try {
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // public method declared on a class we can not see, e.g. a package private bean
+        }
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (RuntimeException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package io.vertx.ext.spring.impl.handler;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * JSON mapping of handler bodies and return values.
+ * <p>The full generic type of each parameter or return type is resolved when the route is
+ * registered, and each one gets its own {@link Decoder} or {@link Encoder} caching a
+ * dedicated {@link ObjectReader} or {@link ObjectWriter}. Those are created on first use,
+ * so mapper configuration done after the router is built is still honoured.
+ * <p>Without a configured mapper the global {@link Json#mapper} is used.
+ */
+public class JsonCodec {
+
+    private final ObjectMapper mapper;
+
+    public JsonCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    ObjectMapper mapper() {
+        return mapper != null ? mapper : Json.mapper;
+    }
+
+    public Decoder decoder(Type type) {
+        return new Decoder(this, mapper().getTypeFactory().constructType(type));
+    }
+
+    public Encoder encoder(Type type) {
+        return new Encoder(this, mapper().getTypeFactory().constructType(type));
+    }
+
+    public Encoder listEncoder(Type elementType) {
+        return new Encoder(this, mapper().getTypeFactory().constructCollectionType(List.class,
+                mapper().getTypeFactory().constructType(elementType)));
+    }
+
+    public static final class Decoder {
+
+        private final JsonCodec codec;
+
+        private final JavaType type;
+
+        private volatile ObjectReader reader;
+
+        private Decoder(JsonCodec codec, JavaType type) {
+            this.codec = codec;
+            this.type = type;
+        }
+
+        ObjectReader reader() {
+            ObjectReader reader = this.reader;
+            if (reader == null) {
+                this.reader = reader = codec.mapper().readerFor(type);
+            }
+            return reader;
+        }
+
+        /**
+         * Decodes the buffer in place, an empty buffer decodes to {@code null}.
+         */
+        public Object decode(Buffer buffer) {
+            if (buffer.length() == 0) {
+                return null;
+            }
+            try (InputStream in = new ByteBufInputStream(buffer.getByteBuf())) {
+                return reader().readValue(in);
+            } catch (IOException e) {
+                throw new DecodeException("Failed to decode: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Converts a value already parsed, such as the map of a {@code JsonObject}, without
+         * going through its JSON text.
+         */
+        public Object convert(Object value) {
+            try {
+                return codec.mapper().convertValue(value, type);
+            } catch (IllegalArgumentException e) {
+                throw new DecodeException("Failed to decode: " + e.getMessage());
+            }
+        }
+
+        Object decode(JsonParser parser) {
+            try {
+                return reader().readValue(parser);
+            } catch (IOException e) {
+                throw new DecodeException("Failed to decode: " + e.getMessage());
+            }
+        }
+    }
+
+    public static final class Encoder {
+
+        private final JsonCodec codec;
+
+        private final JavaType type;
+
+        private volatile ObjectWriter writer;
+
+        private Encoder(JsonCodec codec, JavaType type) {
+            this.codec = codec;
+            // declared types only matter for containers, where the runtime class has lost
+            // the element type; anything else is better written from its runtime class
+            this.type = type.isContainerType() ? type : null;
+        }
+
+        ObjectWriter writer() {
+            ObjectWriter writer = this.writer;
+            if (writer == null) {
+                this.writer = writer = type != null ? codec.mapper().writerFor(type) : codec.mapper().writer();
+            }
+            return writer;
+        }
+
+        /**
+         * Encodes the value straight into a new buffer.
+         */
+        public Buffer encode(Object value) {
+            ByteBuf byteBuf = Unpooled.buffer();
+            encode(value, byteBuf);
+            return Buffer.buffer(byteBuf);
+        }
+
+        /**
+         * Encodes the value at the end of the given buffer.
+         */
+        void encode(Object value, ByteBuf byteBuf) {
+            try (OutputStream out = new ByteBufOutputStream(byteBuf)) {
+                writer().writeValue(out, value);
+            } catch (IOException e) {
+                throw new EncodeException("Failed to encode as JSON: " + e.getMessage());
+            }
+        }
+    }
+}
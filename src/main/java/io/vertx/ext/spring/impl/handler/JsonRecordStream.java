@@ -0,0 +1,176 @@
+package io.vertx.ext.spring.impl.handler;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+/**
+ * The request body handed to a {@code @RouterRequestBody ReadStream<T>} parameter when
+ * {@code T} is not {@link Buffer}.
+ * <p>The body is fed to a non-blocking Jackson parser and each record is decoded as soon
+ * as its last token has arrived, so only the record being parsed is held in memory.
+ * Both newline delimited JSON and a top level JSON array are accepted, the enclosing
+ * array itself is not reported.
+ */
+public class JsonRecordStream<T> implements ReadStream<T> {
+
+    private final ReadStream<Buffer> body;
+
+    private final JsonCodec.Decoder decoder;
+
+    private final JsonParser parser;
+
+    private final ArrayDeque<Buffer> pending = new ArrayDeque<>();
+
+    private TokenBuffer record;
+
+    private int depth;
+
+    private boolean inArray;
+
+    private boolean started;
+
+    private boolean paused;
+
+    private boolean ended;
+
+    private boolean inputEnded;
+
+    private Handler<T> handler;
+
+    private Handler<Throwable> exceptionHandler;
+
+    private Handler<Void> endHandler;
+
+    JsonRecordStream(ReadStream<Buffer> body, JsonCodec.Decoder decoder) {
+        this.body = body;
+        this.decoder = decoder;
+        try {
+            this.parser = decoder.reader().getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public JsonRecordStream<T> exceptionHandler(Handler<Throwable> handler) {
+        exceptionHandler = handler;
+        body.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public JsonRecordStream<T> handler(Handler<T> handler) {
+        this.handler = handler;
+        if (handler == null) {
+            body.handler(null);
+            body.endHandler(null);
+        } else {
+            body.endHandler((v) -> {
+                ended = true;
+                drain();
+            });
+            body.handler((buffer) -> {
+                pending.add(buffer);
+                drain();
+            });
+        }
+        return this;
+    }
+
+    @Override
+    public JsonRecordStream<T> pause() {
+        paused = true;
+        body.pause();
+        return this;
+    }
+
+    @Override
+    public JsonRecordStream<T> resume() {
+        paused = false;
+        drain();
+        if (!paused) {
+            body.resume();
+        }
+        return this;
+    }
+
+    @Override
+    public JsonRecordStream<T> endHandler(Handler<Void> handler) {
+        endHandler = handler;
+        return this;
+    }
+
+    private void drain() {
+        ByteArrayFeeder feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        try {
+            while (!paused && handler != null) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.NOT_AVAILABLE) {
+                    Buffer next = pending.poll();
+                    if (next != null) {
+                        byte[] bytes = next.getBytes();
+                        feeder.feedInput(bytes, 0, bytes.length);
+                    } else if (ended && !inputEnded) {
+                        inputEnded = true;
+                        feeder.endOfInput();
+                    } else {
+                        return;
+                    }
+                } else if (token == null) {
+                    handler = null;
+                    if (endHandler != null) {
+                        endHandler.handle(null);
+                    }
+                    return;
+                } else {
+                    handleToken(token);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            handler = null;
+            body.handler(null);
+            body.endHandler(null);
+            if (exceptionHandler != null) {
+                exceptionHandler.handle(e);
+            }
+        }
+    }
+
+    private void handleToken(JsonToken token) throws IOException {
+        if (record == null) {
+            if (token == JsonToken.START_ARRAY && !started) {
+                // the whole body is an array of records
+                started = true;
+                inArray = true;
+                return;
+            }
+            started = true;
+            if (token == JsonToken.END_ARRAY && inArray) {
+                inArray = false;
+                return;
+            }
+            record = new TokenBuffer(parser);
+        }
+        record.copyCurrentEvent(parser);
+        if (token.isStructStart()) {
+            depth++;
+        } else if (token.isStructEnd()) {
+            depth--;
+        }
+        if (depth == 0) {
+            JsonParser recordParser = record.asParser();
+            record = null;
+            @SuppressWarnings("unchecked")
+            T value = (T) decoder.decode(recordParser);
+            handler.handle(value);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.vertx.ext.spring.impl.handler;
+
+/**
+ * Converts the text of a request parameter, path variable or header to the type of the
+ * handler method parameter.
+ * <p>One converter is picked per parameter when the route is registered.
+ */
+@FunctionalInterface
+public interface ParamConverter {
+
+    Object convert(String value);
+
+}
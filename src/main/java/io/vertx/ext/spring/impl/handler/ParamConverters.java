@@ -0,0 +1,160 @@
+package io.vertx.ext.spring.impl.handler;
+
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Picks the {@link ParamConverter} of a handler method parameter.
+ * <p>Strings, primitives and their wrappers, {@link UUID} and enums are parsed directly.
+ * Any other type goes through a {@link ConversionService}, checked once for a
+ * {@code String} to type conversion when the converter is built.
+ * <p>Like the Spring converters, an empty value converts to {@code null} for every type
+ * but {@code String}. A missing {@code boolean} is {@code false}, any other primitive
+ * parameter can not be missing.
+ */
+public final class ParamConverters {
+
+    private static final ConversionService conversionService = new DefaultFormattingConversionService();
+
+    private ParamConverters() {
+    }
+
+    public static ParamConverter forType(Class<?> type) {
+        if (type == String.class || type == Object.class) {
+            return (value) -> value;
+
+        } else if (type == int.class || type == Integer.class) {
+            return parse(type, Integer::valueOf);
+
+        } else if (type == long.class || type == Long.class) {
+            return parse(type, Long::valueOf);
+
+        } else if (type == boolean.class || type == Boolean.class) {
+            return parse(type, ParamConverters::parseBoolean);
+
+        } else if (type == short.class || type == Short.class) {
+            return parse(type, Short::valueOf);
+
+        } else if (type == byte.class || type == Byte.class) {
+            return parse(type, Byte::valueOf);
+
+        } else if (type == double.class || type == Double.class) {
+            return parse(type, Double::valueOf);
+
+        } else if (type == float.class || type == Float.class) {
+            return parse(type, Float::valueOf);
+
+        } else if (type == char.class || type == Character.class) {
+            return parse(type, ParamConverters::parseCharacter);
+
+        } else if (type == UUID.class) {
+            return parse(type, UUID::fromString);
+
+        } else if (type.isEnum()) {
+            Map<String, Object> constants = new HashMap<>();
+            for (Object constant : type.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+            return parse(type, (value) -> {
+                Object constant = constants.get(value);
+                if (constant == null) {
+                    throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+                }
+                return constant;
+            });
+        }
+        return conversionService(type);
+    }
+
+    /**
+     * Whether the parameter collects every value of a repeated parameter or header.
+     */
+    public static boolean isMultiValued(Class<?> type) {
+        return type == List.class || type == Collection.class || type == Set.class;
+    }
+
+    /**
+     * Converts all the values of a repeated parameter or header into the collection type
+     * of the parameter. A single value is split on commas.
+     */
+    public static Object convertAll(List<String> values, Class<?> collectionType, ParamConverter element) {
+        if (values.size() == 1) {
+            String[] split = StringUtils.commaDelimitedListToStringArray(values.get(0));
+            Collection<Object> result = newCollection(collectionType, split.length);
+            for (String value : split) {
+                result.add(element.convert(value));
+            }
+            return result;
+        }
+        Collection<Object> result = newCollection(collectionType, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            result.add(element.convert(values.get(i)));
+        }
+        return result;
+    }
+
+    private static Collection<Object> newCollection(Class<?> collectionType, int size) {
+        return collectionType == Set.class ? new LinkedHashSet<>(size * 2) : new ArrayList<>(size);
+    }
+
+    private static ParamConverter parse(Class<?> type, ParamConverter parser) {
+        boolean primitive = type.isPrimitive();
+        return (value) -> {
+            if (value == null || value.isEmpty()) {
+                if (type == boolean.class) {
+                    return Boolean.FALSE;
+                } else if (primitive) {
+                    throw new IllegalStateException("A missing value cannot be assigned to a parameter of primitive type " +
+                            type.getName() + ", consider declaring it with the wrapper type");
+                }
+                return null;
+            }
+            try {
+                return parser.convert(value.trim());
+            } catch (IllegalArgumentException e) {
+                throw new TypeMismatchException(value, type, e);
+            }
+        };
+    }
+
+    private static ParamConverter conversionService(Class<?> type) {
+        TypeDescriptor sourceType = TypeDescriptor.valueOf(String.class);
+        TypeDescriptor targetType = TypeDescriptor.valueOf(type);
+        if (!conversionService.canConvert(sourceType, targetType)) {
+            return (value) -> {
+                throw new TypeMismatchException(value, type);
+            };
+        }
+        return (value) -> conversionService.convert(value, sourceType, targetType);
+    }
+
+    private static Object parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value) || "on".equalsIgnoreCase(value)
+                || "yes".equalsIgnoreCase(value) || "1".equals(value)) {
+            return Boolean.TRUE;
+        } else if ("false".equalsIgnoreCase(value) || "off".equalsIgnoreCase(value)
+                || "no".equalsIgnoreCase(value) || "0".equals(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Invalid boolean value '" + value + "'");
+    }
+
+    private static Object parseCharacter(String value) {
+        if (value.length() > 1) {
+            throw new IllegalArgumentException("Can only convert a [String] with length of 1 to a [Character]");
+        }
+        return value.charAt(0);
+    }
+}
@@ -0,0 +1,87 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.RoutingContext;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Writes a Reactive Streams {@link Publisher} returned by a handler method through a
+ * {@link ResponseStreams.Sink}, asking for items a batch at a time and only while the
+ * response can take them.
+ * <p>Only loaded when reactive-streams is on the classpath.
+ */
+class PublisherReturnValueHandler {
+
+    private static final int BATCH = 64;
+
+    static Class<?> publisherType() {
+        return Publisher.class;
+    }
+
+    static boolean isPublisherType(Class<?> type) {
+        return Publisher.class.isAssignableFrom(type);
+    }
+
+    static boolean isPublisher(Object returnValue) {
+        return returnValue instanceof Publisher;
+    }
+
+    @SuppressWarnings("unchecked")
+    static void handle(RoutingContext context, Object returnValue, JsonCodec.Encoder encoder,
+                       JsonCodec.Encoder listEncoder, BodyWriter writer) {
+        if (returnValue == null) {
+            return;
+        }
+        Context vertxContext = Vertx.currentContext();
+        ResponseStreams.Sink sink = ResponseStreams.sink(context, encoder, listEncoder, writer);
+        ((Publisher<Object>) returnValue).subscribe(new Subscriber<Object>() {
+
+            private Subscription subscription;
+
+            // items asked for and not received yet
+            private long pending;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                ReturnValueHandlers.onContext(vertxContext, () -> {
+                    this.subscription = subscription;
+                    sink.onClose(subscription::cancel);
+                    request();
+                });
+            }
+
+            @Override
+            public void onNext(Object item) {
+                ReturnValueHandlers.onContext(vertxContext, () -> {
+                    pending--;
+                    boolean more = sink.write(item);
+                    if (pending == 0) {
+                        if (more) {
+                            request();
+                        } else {
+                            sink.onDrain(this::request);
+                        }
+                    }
+                });
+            }
+
+            private void request() {
+                pending = BATCH;
+                subscription.request(BATCH);
+            }
+
+            @Override
+            public void onError(Throwable failure) {
+                ReturnValueHandlers.onContext(vertxContext, () -> sink.fail(failure));
+            }
+
+            @Override
+            public void onComplete() {
+                ReturnValueHandlers.onContext(vertxContext, sink::end);
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+
+/**
+ * Prepares the request body of a handler route.
+ * <p>Requests announcing a {@code Content-Length} over the route limit are rejected with
+ * {@code 413} before any byte is read. Buffered routes then read the body with a
+ * {@link BodyHandler} enforcing the same limit. Only multipart file uploads are written to
+ * the uploads directory, any other body is held on the heap, so a buffered route without a
+ * limit of its own gets {@link #DEFAULT_BUFFERED_LIMIT}. Streaming routes get the request
+ * paused and a {@link RequestBodyStream} for the handler to consume, with no limit unless
+ * one is set.
+ */
+public class RequestBodyHandler implements Handler<RoutingContext> {
+
+    /**
+     * The limit of buffered bodies when neither the route nor the router sets one, 10 MiB.
+     */
+    public static final long DEFAULT_BUFFERED_LIMIT = 10 * 1024 * 1024;
+
+    private final long bodyLimit;
+
+    private final BodyHandler bodyHandler;
+
+    private RequestBodyHandler(long bodyLimit, BodyHandler bodyHandler) {
+        this.bodyLimit = bodyLimit;
+        this.bodyHandler = bodyHandler;
+    }
+
+    /**
+     * @param bodyLimit the limit of the route, {@code -1} for {@link #DEFAULT_BUFFERED_LIMIT}
+     */
+    public static RequestBodyHandler buffered(long bodyLimit, String uploadsDirectory) {
+        if (bodyLimit < 0) {
+            bodyLimit = DEFAULT_BUFFERED_LIMIT;
+        }
+        BodyHandler bodyHandler = uploadsDirectory == null ? BodyHandler.create() : BodyHandler.create(uploadsDirectory);
+        return new RequestBodyHandler(bodyLimit, bodyHandler.setBodyLimit(bodyLimit));
+    }
+
+    public static RequestBodyHandler streaming(long bodyLimit) {
+        return new RequestBodyHandler(bodyLimit, null);
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        if (bodyLimit >= 0 && contentLength(context) > bodyLimit) {
+            context.fail(413);
+            return;
+        }
+        if (bodyHandler != null) {
+            bodyHandler.handle(context);
+        } else {
+            context.request().pause();
+            context.put(RequestBodyStream.CONTEXT_KEY, new RequestBodyStream(context, bodyLimit));
+            context.next();
+        }
+    }
+
+    private static long contentLength(RoutingContext context) {
+        String value = context.request().getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
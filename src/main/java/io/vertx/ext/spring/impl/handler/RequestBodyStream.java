@@ -0,0 +1,89 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * The request body handed to a {@code @RouterRequestBody ReadStream<Buffer>} parameter.
+ * <p>The request is paused before the handler runs so no chunk is lost, even when the
+ * handler is dispatched to a worker thread. Setting a data handler resumes it unless
+ * the handler paused the stream itself. Chunked bodies growing over the route limit
+ * fail the request with {@code 413}.
+ */
+public class RequestBodyStream implements ReadStream<Buffer> {
+
+    static final String CONTEXT_KEY = RequestBodyStream.class.getName();
+
+    private final RoutingContext context;
+
+    private final HttpServerRequest request;
+
+    private final long bodyLimit;
+
+    private long received;
+
+    private boolean paused;
+
+    private Handler<Throwable> exceptionHandler;
+
+    RequestBodyStream(RoutingContext context, long bodyLimit) {
+        this.context = context;
+        this.request = context.request();
+        this.bodyLimit = bodyLimit;
+    }
+
+    @Override
+    public RequestBodyStream exceptionHandler(Handler<Throwable> handler) {
+        exceptionHandler = handler;
+        request.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public RequestBodyStream handler(Handler<Buffer> handler) {
+        if (handler == null) {
+            request.handler(null);
+            return this;
+        }
+        request.handler((buffer) -> {
+            received += buffer.length();
+            if (bodyLimit >= 0 && received > bodyLimit) {
+                request.handler(null);
+                request.endHandler(null);
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(new IllegalStateException("Request body exceeds " + bodyLimit + " bytes"));
+                }
+                context.fail(413);
+                return;
+            }
+            handler.handle(buffer);
+        });
+        if (!paused) {
+            request.resume();
+        }
+        return this;
+    }
+
+    @Override
+    public RequestBodyStream pause() {
+        paused = true;
+        request.pause();
+        return this;
+    }
+
+    @Override
+    public RequestBodyStream resume() {
+        paused = false;
+        request.resume();
+        return this;
+    }
+
+    @Override
+    public RequestBodyStream endHandler(Handler<Void> handler) {
+        request.endHandler(handler);
+        return this;
+    }
+}
@@ -0,0 +1,73 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * The timeout of a handler route.
+ * <p>The deadline of a request starts when it reaches the route, before it waits for a
+ * worker. When it expires before the response ends, the request fails with {@code 503} if
+ * the handler did not start yet, which it then never does, or with {@code 504} if it did:
+ * a worker thread running the handler is interrupted and a returned {@code Future} or
+ * {@code CompletionStage} is cancelled.
+ */
+public class RequestTimeout {
+
+    private final Vertx vertx;
+
+    private final long timeout;
+
+    public RequestTimeout(Vertx vertx, long timeout) {
+        this.vertx = vertx;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Starts the deadline of the requests reaching the route, called on the event loop.
+     */
+    public Handler<RoutingContext> arrival(Handler<RoutingContext> handler) {
+        return (context) -> {
+            Deadline deadline = new Deadline(timeout);
+            context.put(Deadline.KEY, deadline);
+            long timer = vertx.setTimer(timeout, (id) -> {
+                if (!context.response().ended()) {
+                    // answered first, the interrupted handler would fail the request otherwise
+                    context.fail(deadline.expire() ? 504 : 503);
+                    deadline.cancel();
+                }
+            });
+            // a request whose client went away does not time out any more
+            ResponseHooks.onDone(context, (v) -> vertx.cancelTimer(timer));
+            handler.handle(context);
+        };
+    }
+
+    /**
+     * Runs the handler unless its deadline expired, on the thread which can be interrupted.
+     */
+    public static Handler<RoutingContext> execution(Handler<RoutingContext> handler) {
+        return (context) -> {
+            Deadline deadline = context.get(Deadline.KEY);
+            if (!deadline.enter()) {
+                return;
+            }
+            try {
+                handler.handle(context);
+            } finally {
+                deadline.exit();
+            }
+        };
+    }
+
+    /**
+     * Cancels the {@code Future} or {@code CompletionStage} returned by a handler when the
+     * request times out.
+     */
+    public static void cancelOnTimeout(RoutingContext context, Object returnValue) {
+        Deadline deadline = context.get(Deadline.KEY);
+        if (deadline != null) {
+            deadline.cancelOnExpiry(returnValue);
+        }
+    }
+}
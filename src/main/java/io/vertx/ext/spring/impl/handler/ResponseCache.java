@@ -0,0 +1,152 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.spring.annotation.RouterCache;
+import io.vertx.ext.spring.impl.BoundedCache;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * The response cache of a {@link RouterCache} handler.
+ * <p>It sits in front of the handler: a hit is answered from the stored buffer and the
+ * handler is not called at all. On a miss the handler runs, and its encoded return value
+ * goes through this cache as the {@link BodyWriter} of the route.
+ * <p>Responses are told apart by the request path, then by the listed path variables,
+ * params and headers. Entries are kept in a {@link BoundedCache}, weighed by their body.
+ */
+public class ResponseCache implements BodyWriter {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final long ttlNanos;
+
+    private final String[] pathVariables;
+
+    private final String[] params;
+
+    private final String[] headers;
+
+    private final BoundedCache<String, Entry> entries;
+
+    public ResponseCache(RouterCache cache) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(cache.ttl());
+        this.pathVariables = cache.pathVariables();
+        this.params = cache.params();
+        this.headers = cache.headers();
+        this.entries = new BoundedCache<>(cache.maxEntries(), cache.maxBytes(), (entry) -> entry.body.length());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long bytes() {
+        return entries.weight();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Wraps the handler of the route, answering hits without calling it.
+     */
+    public Handler<RoutingContext> handler(Handler<RoutingContext> handler) {
+        return (context) -> {
+            Entry entry = entries.get(key(context));
+            if (entry != null) {
+                send(context, entry.headers, entry.body, entry.etag);
+                return;
+            }
+            handler.handle(context);
+        };
+    }
+
+    @Override
+    public void write(RoutingContext context, Buffer body) {
+        HttpServerResponse response = context.response();
+        String etag = etag(body);
+        if (response.getStatusCode() != 200) {
+            BodyWriter.END.write(context, body);
+            return;
+        }
+        MultiMap responseHeaders = MultiMap.caseInsensitiveMultiMap().addAll(response.headers());
+        entries.put(key(context), new Entry(body, etag, responseHeaders), ttlNanos);
+        send(context, null, body, etag);
+    }
+
+    private static void send(RoutingContext context, MultiMap headers, Buffer body, String etag) {
+        HttpServerResponse response = context.response();
+        if (headers != null) {
+            response.headers().addAll(headers);
+        }
+        response.putHeader(HttpHeaders.ETAG, etag);
+        if (matches(context.request().getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatusCode(304).end();
+        } else {
+            response.end(body);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag);
+    }
+
+    private String key(RoutingContext context) {
+        StringBuilder key = new StringBuilder();
+        append(key, context.request().path());
+        for (String name : pathVariables) {
+            append(key, context.pathParam(name));
+        }
+        for (String name : params) {
+            append(key, context.request().params().get(name));
+        }
+        for (String name : headers) {
+            append(key, context.request().getHeader(name));
+        }
+        return key.toString();
+    }
+
+    private static void append(StringBuilder key, String value) {
+        if (value != null) {
+            key.append(value);
+        }
+        key.append(SEPARATOR);
+    }
+
+    private static String etag(Buffer body) {
+        CRC32 crc = new CRC32();
+        ByteBuf byteBuf = body.getByteBuf();
+        if (byteBuf.hasArray()) {
+            crc.update(byteBuf.array(), byteBuf.arrayOffset() + byteBuf.readerIndex(), byteBuf.readableBytes());
+        } else {
+            crc.update(body.getBytes());
+        }
+        return "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(body.length()) + "\"";
+    }
+
+    private static final class Entry {
+
+        final Buffer body;
+
+        final String etag;
+
+        final MultiMap headers;
+
+        Entry(Buffer body, String etag, MultiMap headers) {
+            this.body = body;
+            this.etag = etag;
+            this.headers = headers;
+        }
+    }
+}
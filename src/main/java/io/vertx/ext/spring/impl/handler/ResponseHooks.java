@@ -0,0 +1,98 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Close hooks of a response, shared by all the handlers of its route.
+ * <p>A response holds a single close handler, so the limits, timeouts, metrics and
+ * streams of a route each setting theirs would drop the others. They add their hooks here
+ * instead, and the hooks run once, whichever of the close handler of the response or the
+ * close handler of its connection comes first. A handler method setting the close handler
+ * of its response does not lose them then, as long as it leaves the one of the connection
+ * alone.
+ */
+public final class ResponseHooks {
+
+    private static final String KEY = ResponseHooks.class.getName();
+
+    // the requests with hooks of each open connection, until their response is done
+    private static final Map<HttpConnection, Set<Handler<Void>>> CONNECTIONS = new ConcurrentHashMap<>();
+
+    private ResponseHooks() {
+    }
+
+    /**
+     * Runs the handler when the connection closes before the response ended.
+     */
+    public static void onClose(RoutingContext context, Handler<Void> handler) {
+        List<Handler<Void>> handlers = context.get(KEY);
+        if (handlers == null) {
+            List<Handler<Void>> installed = new ArrayList<>(2);
+            context.put(KEY, installed);
+            AtomicBoolean closed = new AtomicBoolean();
+            Handler<Void> close = (v) -> {
+                if (closed.compareAndSet(false, true)) {
+                    for (Handler<Void> closeHandler : installed) {
+                        closeHandler.handle(null);
+                    }
+                }
+            };
+            context.response().closeHandler(close);
+            HttpConnection connection = context.request().connection();
+            if (connection != null) {
+                watch(connection, close);
+                context.addBodyEndHandler((v) -> unwatch(connection, close));
+            }
+            handlers = installed;
+        }
+        handlers.add(handler);
+    }
+
+    /**
+     * Runs the handler once, when the response ends or its connection closes, whichever
+     * comes first.
+     */
+    public static void onDone(RoutingContext context, Handler<Void> handler) {
+        AtomicBoolean done = new AtomicBoolean();
+        Handler<Void> once = (v) -> {
+            if (done.compareAndSet(false, true)) {
+                handler.handle(null);
+            }
+        };
+        context.addBodyEndHandler(once);
+        onClose(context, once);
+    }
+
+    private static void watch(HttpConnection connection, Handler<Void> close) {
+        CONNECTIONS.compute(connection, (key, closes) -> {
+            if (closes == null) {
+                closes = ConcurrentHashMap.newKeySet();
+                // ours since the first request with hooks, the entry goes with the connection
+                connection.closeHandler((v) -> {
+                    Set<Handler<Void>> pending = CONNECTIONS.remove(connection);
+                    if (pending != null) {
+                        pending.forEach((pendingClose) -> pendingClose.handle(null));
+                    }
+                });
+            }
+            closes.add(close);
+            return closes;
+        });
+    }
+
+    private static void unwatch(HttpConnection connection, Handler<Void> close) {
+        CONNECTIONS.computeIfPresent(connection, (key, closes) -> {
+            closes.remove(close);
+            return closes.isEmpty() ? null : closes;
+        });
+    }
+}
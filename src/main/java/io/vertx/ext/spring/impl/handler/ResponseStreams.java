@@ -0,0 +1,371 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+/**
+ * Writes the items of a {@link ReadStream}, an {@link Iterator} or a {@link Stream}
+ * returned by a handler method, as they come.
+ * <p>The response is a chunked JSON array, or newline delimited JSON when the request
+ * accepts {@value #NDJSON}. Nothing is buffered: when the write queue of the response is
+ * full the source is paused, or the iteration suspended, until it drains, and it is
+ * stopped if the client goes away. A {@link Stream} is closed once written. A worker route
+ * takes the items of its source on the worker pool of the route, one at a time, and hands
+ * each of them to the Vert.x context of the request to be written.
+ * <p>A route writing through a {@link ResponseCache} needs the whole body, the items are
+ * then collected and written as one JSON array.
+ */
+public final class ResponseStreams {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private ResponseStreams() {
+    }
+
+    static boolean isStreamType(Class<?> type) {
+        return ReadStream.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type)
+                || Stream.class.isAssignableFrom(type);
+    }
+
+    static boolean isStream(Object returnValue) {
+        return returnValue instanceof ReadStream || returnValue instanceof Iterator
+                || returnValue instanceof Stream;
+    }
+
+    /**
+     * The type whose type argument is the item type.
+     */
+    static Class<?> streamType(Class<?> type) {
+        if (ReadStream.class.isAssignableFrom(type)) {
+            return ReadStream.class;
+        }
+        return Iterator.class.isAssignableFrom(type) ? Iterator.class : Stream.class;
+    }
+
+    static Sink sink(RoutingContext context, JsonCodec.Encoder encoder, JsonCodec.Encoder listEncoder,
+                     BodyWriter writer) {
+        return writer == BodyWriter.END
+                ? new ChunkedSink(context, encoder)
+                : new CollectingSink(context, listEncoder, writer);
+    }
+
+    @SuppressWarnings("unchecked")
+    static void handle(RoutingContext context, Object returnValue, JsonCodec.Encoder encoder,
+                       JsonCodec.Encoder listEncoder, BodyWriter writer) {
+        if (returnValue == null) {
+            return;
+        }
+        Sink sink = sink(context, encoder, listEncoder, writer);
+        if (returnValue instanceof ReadStream) {
+            read((ReadStream<Object>) returnValue, sink);
+            return;
+        }
+        // a blocking source goes on on its worker, the sink stays on the context of the request
+        Handler<Runnable> blocking = Context.isOnWorkerThread() ? context.get(WorkerPool.BLOCKING) : null;
+        Iterator<?> iterator;
+        BaseStream<?, ?> stream = null;
+        if (returnValue instanceof Stream) {
+            stream = (Stream<?>) returnValue;
+            sink.onClose(stream::close);
+            iterator = stream.iterator();
+        } else {
+            iterator = (Iterator<?>) returnValue;
+        }
+        if (blocking != null) {
+            next(iterator, stream, sink, Vertx.currentContext(), blocking);
+        } else {
+            iterate(iterator, stream, sink);
+        }
+    }
+
+    private static void read(ReadStream<Object> stream, Sink sink) {
+        Context vertxContext = Vertx.currentContext();
+        sink.onClose(() -> {
+            stream.pause();
+            // a source holding resources, such as the rows of a query, is released at once
+            if (stream instanceof AutoCloseable) {
+                closeQuietly((AutoCloseable) stream);
+            }
+        });
+        stream.exceptionHandler((failure) ->
+                ReturnValueHandlers.onContext(vertxContext, () -> sink.fail(failure)));
+        stream.endHandler((v) ->
+                ReturnValueHandlers.onContext(vertxContext, sink::end));
+        stream.handler((item) -> ReturnValueHandlers.onContext(vertxContext, () -> {
+            if (!sink.write(item)) {
+                stream.pause();
+                sink.onDrain(stream::resume);
+            }
+        }));
+    }
+
+    private static void iterate(Iterator<?> iterator, BaseStream<?, ?> stream, Sink sink) {
+        try {
+            while (iterator.hasNext()) {
+                if (!sink.write(iterator.next())) {
+                    sink.onDrain(() -> iterate(iterator, stream, sink));
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            close(stream);
+            sink.fail(e);
+            return;
+        }
+        close(stream);
+        sink.end();
+    }
+
+    /**
+     * Takes the next item on the worker and writes it on the context, then goes on with the
+     * following one on the worker once the response can take it.
+     */
+    private static void next(Iterator<?> iterator, BaseStream<?, ?> stream, Sink sink, Context vertxContext,
+                             Handler<Runnable> blocking) {
+        Object item;
+        try {
+            if (!iterator.hasNext()) {
+                close(stream);
+                ReturnValueHandlers.onContext(vertxContext, sink::end);
+                return;
+            }
+            item = iterator.next();
+        } catch (Throwable e) {
+            close(stream);
+            ReturnValueHandlers.onContext(vertxContext, () -> sink.fail(e));
+            return;
+        }
+        Runnable resume = () -> blocking.handle(() -> next(iterator, stream, sink, vertxContext, blocking));
+        ReturnValueHandlers.onContext(vertxContext, () -> {
+            if (sink.write(item)) {
+                resume.run();
+            } else {
+                sink.onDrain(resume);
+            }
+        });
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // the response is gone already
+        }
+    }
+
+    private static void close(BaseStream<?, ?> stream) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Where the items of a stream go. Items are written, and the stream ended or failed, on
+     * the Vert.x context of the request. The close action may be set from a worker, and runs
+     * on the context.
+     */
+    interface Sink {
+
+        /**
+         * Writes an item, {@code false} when the source should stop until {@link #onDrain}.
+         */
+        boolean write(Object item);
+
+        void end();
+
+        void fail(Throwable failure);
+
+        /**
+         * Runs the action once, when more items can be written. Never runs once the
+         * client is gone.
+         */
+        void onDrain(Runnable action);
+
+        /**
+         * Runs the action if the client goes away before the end of the response.
+         */
+        void onClose(Runnable action);
+    }
+
+    static final class ChunkedSink implements Sink {
+
+        private static final Buffer EMPTY_ARRAY = Buffer.buffer("[]");
+
+        private static final Buffer ARRAY_END = Buffer.buffer("]");
+
+        private final RoutingContext context;
+
+        private final HttpServerResponse response;
+
+        private final JsonCodec.Encoder encoder;
+
+        private final boolean ndjson;
+
+        private boolean started;
+
+        // read by the close of the response as well, which may come before the first write
+        private volatile boolean done;
+
+        private volatile Runnable closeAction;
+
+        ChunkedSink(RoutingContext context, JsonCodec.Encoder encoder) {
+            this.context = context;
+            this.response = context.response();
+            this.encoder = encoder;
+            String accept = context.request().getHeader(HttpHeaders.ACCEPT);
+            this.ndjson = accept != null && accept.contains(NDJSON);
+            ResponseHooks.onClose(context, (v) -> close());
+            // a failed write means the client is gone, the close itself comes later
+            response.exceptionHandler((failure) -> close());
+        }
+
+        private void close() {
+            if (!done) {
+                done = true;
+                if (closeAction != null) {
+                    closeAction.run();
+                }
+            }
+        }
+
+        @Override
+        public boolean write(Object item) {
+            if (done) {
+                return false;
+            }
+            ByteBuf chunk = Unpooled.buffer();
+            if (!ndjson) {
+                chunk.writeByte(started ? ',' : '[');
+            }
+            if (!started) {
+                started = true;
+                // the head only goes out with the first item, so that an early failure is
+                // still answered with a proper status
+                response.setChunked(true);
+                if (!response.headers().contains(HttpHeaders.CONTENT_TYPE)) {
+                    response.putHeader(HttpHeaders.CONTENT_TYPE, ndjson ? NDJSON : "application/json");
+                }
+            }
+            encode(item, chunk);
+            if (ndjson) {
+                chunk.writeByte('\n');
+            }
+            response.write(Buffer.buffer(chunk));
+            return !response.writeQueueFull();
+        }
+
+        private void encode(Object item, ByteBuf chunk) {
+            if (item instanceof JsonObject) {
+                chunk.writeBytes(((JsonObject) item).toBuffer().getByteBuf());
+            } else if (item instanceof JsonArray) {
+                chunk.writeBytes(((JsonArray) item).toBuffer().getByteBuf());
+            } else {
+                encoder.encode(item, chunk);
+            }
+        }
+
+        @Override
+        public void end() {
+            if (done) {
+                return;
+            }
+            done = true;
+            if (started) {
+                if (ndjson) {
+                    response.end();
+                } else {
+                    response.end(ARRAY_END);
+                }
+            } else if (ndjson) {
+                response.putHeader(HttpHeaders.CONTENT_TYPE, NDJSON).end();
+            } else {
+                response.putHeader(HttpHeaders.CONTENT_TYPE, "application/json").end(EMPTY_ARRAY);
+            }
+        }
+
+        @Override
+        public void fail(Throwable failure) {
+            if (!done) {
+                done = true;
+                context.fail(failure);
+            }
+        }
+
+        @Override
+        public void onDrain(Runnable action) {
+            if (done) {
+                return;
+            }
+            response.drainHandler((v) -> {
+                // the drain handler is called on every change of writability, only resume once
+                response.drainHandler(null);
+                if (!done) {
+                    action.run();
+                }
+            });
+        }
+
+        @Override
+        public void onClose(Runnable action) {
+            this.closeAction = action;
+        }
+    }
+
+    static final class CollectingSink implements Sink {
+
+        private final RoutingContext context;
+
+        private final JsonCodec.Encoder listEncoder;
+
+        private final BodyWriter writer;
+
+        private final List<Object> items = new ArrayList<>();
+
+        CollectingSink(RoutingContext context, JsonCodec.Encoder listEncoder, BodyWriter writer) {
+            this.context = context;
+            this.listEncoder = listEncoder;
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean write(Object item) {
+            items.add(item);
+            return true;
+        }
+
+        @Override
+        public void end() {
+            ReturnValueHandlers.complete(context, items, null, listEncoder, writer);
+        }
+
+        @Override
+        public void fail(Throwable failure) {
+            ReturnValueHandlers.complete(context, null, failure, listEncoder, writer);
+        }
+
+        @Override
+        public void onDrain(Runnable action) {
+            action.run();
+        }
+
+        @Override
+        public void onClose(Runnable action) {
+        }
+    }
+}
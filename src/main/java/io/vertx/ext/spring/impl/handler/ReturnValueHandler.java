@@ -0,0 +1,16 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Turns the value returned by a {@link io.vertx.ext.spring.annotation.RouterHandler}
+ * method into the response.
+ * <p>One handler is picked per method from its declared return type when the route is
+ * registered.
+ */
+@FunctionalInterface
+public interface ReturnValueHandler {
+
+    void handle(RoutingContext context, Object returnValue);
+
+}
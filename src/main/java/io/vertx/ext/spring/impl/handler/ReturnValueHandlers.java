@@ -0,0 +1,159 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Picks the {@link ReturnValueHandler} of a handler method.
+ * <p>Plain values are written right away: strings and primitives as text, anything else
+ * as JSON through the {@link JsonCodec} encoder of the declared return type. A
+ * {@code null} value leaves the response to the handler method.
+ * <p>A {@link Future} or a {@link CompletionStage} is written with the same rules once it
+ * resolves, a {@code null} result then ends the response with no body. A Vert.x future
+ * holds a single handler, which is taken to write the response: the method must not set
+ * its own on the future it returns, it would be replaced. A Reactive Streams
+ * {@code Publisher}, a {@code ReadStream}, an {@code Iterator} or a {@code Stream} is
+ * written item by item by {@link ResponseStreams}. Failures are routed to the failure handler. Completion always
+ * happens back on the Vert.x context the handler was called on.
+ */
+public final class ReturnValueHandlers {
+
+    private static final boolean publisherPresent =
+            ClassUtils.isPresent("org.reactivestreams.Publisher", ReturnValueHandlers.class.getClassLoader());
+
+    private ReturnValueHandlers() {
+    }
+
+    public static ReturnValueHandler forMethod(Method method, JsonCodec codec, BodyWriter writer) {
+        Class<?> type = method.getReturnType();
+        if (Future.class.isAssignableFrom(type)) {
+            JsonCodec.Encoder encoder = codec.encoder(typeArgument(method, Future.class));
+            return (context, returnValue) -> future(context, returnValue, encoder, writer);
+
+        } else if (CompletionStage.class.isAssignableFrom(type)) {
+            JsonCodec.Encoder encoder = codec.encoder(typeArgument(method, CompletionStage.class));
+            return (context, returnValue) -> completionStage(context, returnValue, encoder, writer);
+
+        } else if (publisherPresent && PublisherReturnValueHandler.isPublisherType(type)) {
+            Type itemType = typeArgument(method, PublisherReturnValueHandler.publisherType());
+            JsonCodec.Encoder encoder = codec.encoder(itemType);
+            JsonCodec.Encoder listEncoder = codec.listEncoder(itemType);
+            return (context, returnValue) ->
+                    PublisherReturnValueHandler.handle(context, returnValue, encoder, listEncoder, writer);
+
+        } else if (ResponseStreams.isStreamType(type)) {
+            Type itemType = typeArgument(method, ResponseStreams.streamType(type));
+            JsonCodec.Encoder encoder = codec.encoder(itemType);
+            JsonCodec.Encoder listEncoder = codec.listEncoder(itemType);
+            return (context, returnValue) ->
+                    ResponseStreams.handle(context, returnValue, encoder, listEncoder, writer);
+
+        } else if (type == Object.class) {
+            // only known once the method returns
+            JsonCodec.Encoder encoder = codec.encoder(Object.class);
+            JsonCodec.Encoder listEncoder = codec.listEncoder(Object.class);
+            return (context, returnValue) -> dynamic(context, returnValue, encoder, listEncoder, writer);
+        }
+        JsonCodec.Encoder encoder = codec.encoder(method.getGenericReturnType());
+        return (context, returnValue) -> value(context, returnValue, encoder, writer);
+    }
+
+    private static Type typeArgument(Method method, Class<?> container) {
+        ResolvableType argument = ResolvableType.forMethodReturnType(method).as(container).getGeneric(0);
+        return argument == ResolvableType.NONE ? Object.class : argument.getType();
+    }
+
+    private static void dynamic(RoutingContext context, Object returnValue,
+                                JsonCodec.Encoder encoder, JsonCodec.Encoder listEncoder, BodyWriter writer) {
+        if (returnValue instanceof Future) {
+            future(context, returnValue, encoder, writer);
+
+        } else if (returnValue instanceof CompletionStage) {
+            completionStage(context, returnValue, encoder, writer);
+
+        } else if (publisherPresent && PublisherReturnValueHandler.isPublisher(returnValue)) {
+            PublisherReturnValueHandler.handle(context, returnValue, encoder, listEncoder, writer);
+
+        } else if (ResponseStreams.isStream(returnValue)) {
+            ResponseStreams.handle(context, returnValue, encoder, listEncoder, writer);
+
+        } else {
+            value(context, returnValue, encoder, writer);
+        }
+    }
+
+    private static void value(RoutingContext context, Object returnValue, JsonCodec.Encoder encoder,
+                              BodyWriter writer) {
+        if (returnValue != null) {
+            write(context, returnValue, encoder, writer);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void future(RoutingContext context, Object returnValue, JsonCodec.Encoder encoder,
+                               BodyWriter writer) {
+        if (returnValue == null) {
+            return;
+        }
+        Context vertxContext = Vertx.currentContext();
+        ((Future<Object>) returnValue).setHandler((AsyncResult<Object> ar) ->
+                onContext(vertxContext, () -> complete(context, ar.result(), ar.cause(), encoder, writer)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void completionStage(RoutingContext context, Object returnValue, JsonCodec.Encoder encoder,
+                                        BodyWriter writer) {
+        if (returnValue == null) {
+            return;
+        }
+        Context vertxContext = Vertx.currentContext();
+        ((CompletionStage<Object>) returnValue).whenComplete((result, failure) ->
+                onContext(vertxContext, () -> complete(context, result, failure, encoder, writer)));
+    }
+
+    static void complete(RoutingContext context, Object result, Throwable failure, JsonCodec.Encoder encoder,
+                         BodyWriter writer) {
+        if (failure != null) {
+            context.fail(failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure);
+        } else if (result != null) {
+            write(context, result, encoder, writer);
+        } else if (!context.response().ended()) {
+            context.response().end();
+        }
+    }
+
+    static void onContext(Context vertxContext, Runnable action) {
+        if (vertxContext == null || Vertx.currentContext() == vertxContext) {
+            action.run();
+        } else {
+            vertxContext.runOnContext((v) -> action.run());
+        }
+    }
+
+    static void write(RoutingContext context, Object value, JsonCodec.Encoder encoder, BodyWriter writer) {
+        if (value instanceof String || ClassUtils.isPrimitiveOrWrapper(value.getClass())) {
+            writer.write(context, Buffer.buffer(String.valueOf(value)));
+        } else if (value instanceof JsonObject) {
+            writer.write(context, ((JsonObject) value).toBuffer());
+        } else if (value instanceof JsonArray) {
+            writer.write(context, ((JsonArray) value).toBuffer());
+        } else {
+            writer.write(context, encoder.encode(value));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.spring.annotation.RouterLimit;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The limits of a {@link RouterLimit} handler.
+ * <p>It sits in front of the handler and of its worker pool, so a rejected request costs
+ * no more than its response. Everything is lock-free: the requests in flight are a counter
+ * bumped with a compare and set, and the rate is a virtual scheduling token bucket, the
+ * time its next token is due moving forward with a compare and set.
+ * <p>The adaptive limit is an AIMD one: a response within the target latency adds
+ * {@code 1/limit} to the limit, a slower one cuts it by a tenth, at most once per target
+ * latency.
+ */
+public class RouteLimiter {
+
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private static final double DECREASE = 0.9;
+
+    private final int maxConcurrency;
+
+    private final int minConcurrency;
+
+    private final boolean adaptive;
+
+    private final long targetLatencyNanos;
+
+    private final long intervalNanos;
+
+    private final long toleranceNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // the bits of the double limit
+    private final AtomicLong limit;
+
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong nextToken = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public RouteLimiter(RouterLimit limit) {
+        if (limit.adaptive() && limit.maxConcurrency() <= 0) {
+            throw new IllegalStateException("An adaptive limit needs a maxConcurrency");
+        }
+        if (limit.maxConcurrency() > 0 && limit.minConcurrency() > limit.maxConcurrency()) {
+            throw new IllegalStateException("minConcurrency " + limit.minConcurrency()
+                    + " is over maxConcurrency " + limit.maxConcurrency());
+        }
+        this.maxConcurrency = limit.maxConcurrency();
+        this.minConcurrency = Math.max(1, limit.minConcurrency());
+        this.adaptive = limit.adaptive();
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(limit.targetLatency());
+        if (limit.rate() > 0) {
+            int burst = limit.burst() > 0 ? limit.burst() : Math.max(1, (int) Math.ceil(limit.rate()));
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.rate());
+            this.toleranceNanos = intervalNanos * (burst - 1);
+        } else {
+            this.intervalNanos = 0;
+            this.toleranceNanos = 0;
+        }
+        this.limit = new AtomicLong(Double.doubleToLongBits(maxConcurrency));
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * The current concurrency limit, {@code -1} when there is none.
+     */
+    public int getLimit() {
+        return maxConcurrency > 0 ? (int) limit() : -1;
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Wraps the handler of the route, rejecting the requests over the limits.
+     */
+    public Handler<RoutingContext> handler(Handler<RoutingContext> handler) {
+        return (context) -> {
+            if (maxConcurrency > 0 && !acquire()) {
+                reject(context, 503, 1);
+                return;
+            }
+            if (intervalNanos > 0) {
+                long wait = takeToken();
+                if (wait > 0) {
+                    if (maxConcurrency > 0) {
+                        inFlight.decrementAndGet();
+                    }
+                    reject(context, 429, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+                    return;
+                }
+            }
+            if (maxConcurrency > 0) {
+                Permit permit = new Permit(this, System.nanoTime());
+                context.addBodyEndHandler(permit);
+                ResponseHooks.onClose(context, permit);
+            }
+            handler.handle(context);
+        };
+    }
+
+    private boolean acquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Takes a token, returning 0 or how long to wait for the next one.
+     */
+    private long takeToken() {
+        long now = System.nanoTime();
+        long due;
+        long next;
+        do {
+            due = nextToken.get();
+            next = due - now > 0 ? due : now;
+            if (next - now > toleranceNanos) {
+                return next - now - toleranceNanos;
+            }
+        } while (!nextToken.compareAndSet(due, next + intervalNanos));
+        return 0;
+    }
+
+    private void reject(RoutingContext context, int status, long retryAfter) {
+        rejected.incrementAndGet();
+        HttpServerResponse response = context.response();
+        response.setStatusCode(status)
+                .putHeader(RETRY_AFTER, Long.toString(Math.max(1, retryAfter)))
+                .end();
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    private void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (!adaptive) {
+            return;
+        }
+        if (latencyNanos > targetLatencyNanos) {
+            long now = System.nanoTime();
+            long last = lastDecrease.get();
+            if (now - last < targetLatencyNanos || !lastDecrease.compareAndSet(last, now)) {
+                return;
+            }
+        }
+        long bits;
+        double next;
+        do {
+            bits = limit.get();
+            double current = Double.longBitsToDouble(bits);
+            next = latencyNanos > targetLatencyNanos
+                    ? Math.max(minConcurrency, current * DECREASE)
+                    : Math.min(maxConcurrency, current + 1 / current);
+            if (next == current) {
+                return;
+            }
+        } while (!limit.compareAndSet(bits, Double.doubleToLongBits(next)));
+    }
+
+    private static final class Permit implements Handler<Void> {
+
+        private static final AtomicIntegerFieldUpdater<Permit> RELEASED =
+                AtomicIntegerFieldUpdater.newUpdater(Permit.class, "released");
+
+        final RouteLimiter limiter;
+
+        final long start;
+
+        volatile int released;
+
+        Permit(RouteLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void handle(Void v) {
+            // the response may end and its connection close afterwards
+            if (RELEASED.compareAndSet(this, 0, 1)) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.impl.RoutingContextDecorator;
+import io.vertx.ext.web.impl.Utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The handler routes compiled into a single route of the router.
+ * <p>Static paths are found with one hash lookup. Paths with {@code :variables} go in a
+ * trie of their segments, so the routes of a controller share the nodes of its prefix and
+ * a lookup walks as many nodes as the path has segments, static segments winning over
+ * variables. Either way the cost does not grow with the number of routes. Requests
+ * matching no route go on to the next routes of the router.
+ * <p>Paths are matched like vertx-web does: on the normalised path, ignoring a trailing
+ * slash, with url decoded variables added to the request params. Wildcard and regex paths
+ * are not supported, see {@link #supports}.
+ */
+public class RouteTable implements Handler<RoutingContext> {
+
+    private static final int METHODS = HttpMethod.values().length;
+
+    private final Map<String, Endpoint[]> staticRoutes = new HashMap<>();
+
+    private final Node root = new Node();
+
+    private int maxVariables;
+
+    /**
+     * Whether the path can go in the table, only paths made of plain and {@code :variable}
+     * segments can.
+     */
+    public static boolean supports(String path) {
+        if (!path.startsWith("/")) {
+            return false;
+        }
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '*' || c == '(' || c == ')' || c == '[' || c == ']' || c == '{' || c == '}'
+                    || c == '?' || c == '+' || c == '|' || c == '^' || c == '$' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the route handler once the body handler is done, in the same route.
+     */
+    public static Handler<RoutingContext> withBody(Handler<RoutingContext> bodyHandler,
+                                                   Handler<RoutingContext> handler) {
+        return (context) -> bodyHandler.handle(new RoutingContextDecorator(context.currentRoute(), context) {
+            @Override
+            public void next() {
+                handler.handle(context);
+            }
+        });
+    }
+
+    public void add(HttpMethod method, String path, Handler<RoutingContext> handler) {
+        String[] segments = removeTrailingSlash(path).substring(1).split("/", -1);
+        List<String> variables = new ArrayList<>();
+        Node node = root;
+        for (String segment : segments) {
+            if (segment.startsWith(":")) {
+                variables.add(segment.substring(1));
+                if (node.variable == null) {
+                    node.variable = new Node();
+                }
+                node = node.variable;
+            } else {
+                node = node.children.computeIfAbsent(segment, (s) -> new Node());
+            }
+        }
+        Endpoint[] endpoints;
+        if (variables.isEmpty()) {
+            endpoints = staticRoutes.computeIfAbsent(removeTrailingSlash(path), (p) -> new Endpoint[METHODS]);
+        } else {
+            if (node.endpoints == null) {
+                node.endpoints = new Endpoint[METHODS];
+            }
+            endpoints = node.endpoints;
+            maxVariables = Math.max(maxVariables, variables.size());
+        }
+        if (endpoints[method.ordinal()] != null) {
+            throw new IllegalStateException("Duplicate route " + method + " " + path + ", already mapped as "
+                    + method + " " + endpoints[method.ordinal()].path);
+        }
+        endpoints[method.ordinal()] = new Endpoint(path, variables.toArray(new String[0]), handler);
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        HttpMethod method = context.request().method();
+        String path = path(context);
+        Endpoint[] endpoints = staticRoutes.get(path);
+        if (endpoints != null && endpoints[method.ordinal()] != null) {
+            endpoints[method.ordinal()].handler.handle(context);
+            return;
+        }
+        if (maxVariables > 0) {
+            String[] values = new String[maxVariables];
+            Endpoint endpoint = find(root, path, 1, method, values, 0);
+            if (endpoint != null) {
+                for (int i = 0; i < endpoint.variables.length; i++) {
+                    String value = Utils.urlDecode(values[i], false);
+                    if (!context.request().params().contains(endpoint.variables[i])) {
+                        context.request().params().add(endpoint.variables[i], value);
+                    }
+                    context.pathParams().put(endpoint.variables[i], value);
+                }
+                endpoint.handler.handle(context);
+                return;
+            }
+        }
+        context.next();
+    }
+
+    /**
+     * Wraps the failure handler of the table route, so it only handles the requests of
+     * the table.
+     */
+    public Handler<RoutingContext> failureHandler(Handler<RoutingContext> failureHandler) {
+        return (context) -> {
+            if (matches(context)) {
+                failureHandler.handle(context);
+            } else {
+                context.next();
+            }
+        };
+    }
+
+    private boolean matches(RoutingContext context) {
+        HttpMethod method = context.request().method();
+        String path = path(context);
+        Endpoint[] endpoints = staticRoutes.get(path);
+        if (endpoints != null && endpoints[method.ordinal()] != null) {
+            return true;
+        }
+        return maxVariables > 0 && find(root, path, 1, method, new String[maxVariables], 0) != null;
+    }
+
+    /**
+     * The path of the request within the router, which may be mounted on a parent router.
+     */
+    private static String path(RoutingContext context) {
+        String path = context.normalisedPath();
+        String mountPoint = context.mountPoint();
+        if (mountPoint != null) {
+            int length = mountPoint.endsWith("/") ? mountPoint.length() - 1 : mountPoint.length();
+            if (path.regionMatches(0, mountPoint, 0, length)) {
+                path = length == path.length() ? "/" : path.substring(length);
+            }
+        }
+        return removeTrailingSlash(path);
+    }
+
+    private static Endpoint find(Node node, String path, int start, HttpMethod method, String[] values,
+                                 int depth) {
+        if (start > path.length()) {
+            return node.endpoints != null ? node.endpoints[method.ordinal()] : null;
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        String segment = path.substring(start, end);
+        Node child = node.children.get(segment);
+        if (child != null) {
+            Endpoint endpoint = find(child, path, end + 1, method, values, depth);
+            if (endpoint != null) {
+                return endpoint;
+            }
+        }
+        if (node.variable != null && !segment.isEmpty()) {
+            values[depth] = segment;
+            return find(node.variable, path, end + 1, method, values, depth + 1);
+        }
+        return null;
+    }
+
+    private static String removeTrailingSlash(String path) {
+        return path.length() > 1 && path.charAt(path.length() - 1) == '/'
+                ? path.substring(0, path.length() - 1)
+                : path;
+    }
+
+    private static final class Node {
+
+        final Map<String, Node> children = new HashMap<>();
+
+        Node variable;
+
+        Endpoint[] endpoints;
+    }
+
+    private static final class Endpoint {
+
+        final String path;
+
+        final String[] variables;
+
+        final Handler<RoutingContext> handler;
+
+        Endpoint(String path, String[] variables, Handler<RoutingContext> handler) {
+            this.path = path;
+            this.variables = variables;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.vertx.ext.spring.impl.handler;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.impl.BlockingHandlerDecorator;
+import io.vertx.ext.web.impl.RoutingContextDecorator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A named pool of worker threads running the blocking handlers bound to it.
+ * <p>Routes on different pools never wait for each other, so a slow handler only holds
+ * back the routes sharing its pool. With a {@code maxQueue} of zero or more, a request
+ * arriving while every thread is busy and the queue is full is rejected with {@code 503}
+ * right away instead of waiting.
+ */
+public class WorkerPool {
+
+    /**
+     * The routing context data holding the {@code Handler<Runnable>} which runs more
+     * blocking work of the request on the threads its handler runs on.
+     */
+    static final String BLOCKING = WorkerPool.class.getName() + ".blocking";
+
+    private final String name;
+
+    private final WorkerExecutor executor;
+
+    private final int size;
+
+    private final int maxQueue;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public WorkerPool(String name, WorkerExecutor executor, int size, int maxQueue) {
+        this.name = name;
+        this.executor = executor;
+        this.size = size;
+        this.maxQueue = maxQueue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    /**
+     * Number of requests running on or waiting for a thread of the pool.
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Wraps the handler to run on this pool, like {@code Route.blockingHandler} does on
+     * the Vert.x worker pool.
+     */
+    public Handler<RoutingContext> blockingHandler(Handler<RoutingContext> handler, boolean ordered) {
+        Handler<Runnable> blocking = (task) -> {
+            pending.incrementAndGet();
+            executor.<Void>executeBlocking((future) -> {
+                try {
+                    task.run();
+                } finally {
+                    pending.decrementAndGet();
+                }
+                future.complete();
+            }, ordered, null);
+        };
+        return (context) -> {
+            if (!acquire()) {
+                context.fail(503);
+                return;
+            }
+            context.put(BLOCKING, blocking);
+            Route route = context.currentRoute();
+            executor.<Void>executeBlocking((future) -> {
+                try {
+                    handler.handle(new RoutingContextDecorator(route, context));
+                } finally {
+                    pending.decrementAndGet();
+                }
+                future.complete();
+            }, ordered, (ar) -> {
+                if (ar.failed()) {
+                    context.fail(ar.cause());
+                }
+            });
+        };
+    }
+
+    /**
+     * Wraps the handler to run on the Vert.x worker pool.
+     */
+    public static Handler<RoutingContext> defaultBlockingHandler(Vertx vertx, Handler<RoutingContext> handler,
+                                                                 boolean ordered) {
+        Handler<RoutingContext> decorator = new BlockingHandlerDecorator(handler, ordered);
+        Handler<Runnable> blocking = (task) -> vertx.<Void>executeBlocking((future) -> {
+            task.run();
+            future.complete();
+        }, ordered, null);
+        return (context) -> {
+            context.put(BLOCKING, blocking);
+            decorator.handle(context);
+        };
+    }
+
+    private boolean acquire() {
+        if (maxQueue < 0) {
+            pending.incrementAndGet();
+            return true;
+        }
+        int limit = size + maxQueue;
+        for (;;) {
+            int current = pending.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (pending.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void close() {
+        executor.close();
+    }
+}
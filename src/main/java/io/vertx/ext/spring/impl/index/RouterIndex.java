@@ -0,0 +1,188 @@
+package io.vertx.ext.spring.impl.index;
+
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.vertx.ext.spring.annotation.RouterHandler;
+
+/**
+ * The route index written by {@link RouterIndexProcessor} when the handlers are compiled.
+ * <p>Each line of the index describes a handler method with tab separated fields: the
+ * controller class, the method name, its parameter types, the HTTP method and the full
+ * path. The router reads the rest from the annotations of the method. A line made of
+ * {@value #CONSUMER} and a class names a bean class with {@code VertxConsumer} methods.
+ * <p>Every index found on the classpath is merged, so each jar can bring its own.
+ */
+public class RouterIndex {
+
+    public static final String LOCATION = "META-INF/vertx-spring/router.index";
+
+    static final char SEPARATOR = '\t';
+
+    static final String CONSUMER = "consumer";
+
+    private final List<Entry> entries;
+
+    private final Set<String> consumers;
+
+    RouterIndex(List<Entry> entries, Set<String> consumers) {
+        this.entries = entries;
+        this.consumers = consumers;
+    }
+
+    /**
+     * Loads the indexes visible from the class loader, {@code null} when there are none.
+     */
+    public static RouterIndex load(ClassLoader classLoader) {
+        List<Entry> entries = new ArrayList<>();
+        Set<String> consumers = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(LOCATION);
+            if (!resources.hasMoreElements()) {
+                return null;
+            }
+            while (resources.hasMoreElements()) {
+                try (InputStream in = resources.nextElement().openStream()) {
+                    read(in, entries, consumers);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read the route index " + LOCATION, e);
+        }
+        return new RouterIndex(entries, consumers);
+    }
+
+    private static void read(InputStream in, List<Entry> entries, Set<String> consumers) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+            if (fields[0].equals(CONSUMER)) {
+                consumers.add(fields[1]);
+                continue;
+            }
+            String[] parameterTypes = fields[2].isEmpty() ? new String[0] : fields[2].split(",");
+            entries.add(new Entry(fields[0], fields[1], parameterTypes, fields[3], fields[4]));
+        }
+    }
+
+    /**
+     * The index restricted to the classes of the given packages.
+     */
+    public RouterIndex forPackages(String... basePackages) {
+        List<Entry> selected = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (inPackages(entry.controller, basePackages)) {
+                selected.add(entry);
+            }
+        }
+        Set<String> selectedConsumers = new LinkedHashSet<>();
+        for (String consumer : consumers) {
+            if (inPackages(consumer, basePackages)) {
+                selectedConsumers.add(consumer);
+            }
+        }
+        return new RouterIndex(selected, selectedConsumers);
+    }
+
+    private static boolean inPackages(String className, String[] basePackages) {
+        for (String basePackage : basePackages) {
+            if (className.startsWith(basePackage + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public Set<String> getControllers() {
+        Set<String> controllers = new LinkedHashSet<>();
+        for (Entry entry : entries) {
+            controllers.add(entry.controller);
+        }
+        return controllers;
+    }
+
+    /**
+     * The classes with consumer methods, routers excepted.
+     */
+    public Set<String> getConsumers() {
+        return Collections.unmodifiableSet(consumers);
+    }
+
+    public static final class Entry {
+
+        private final String controller;
+
+        private final String methodName;
+
+        private final String[] parameterTypes;
+
+        private final String httpMethod;
+
+        private final String path;
+
+        Entry(String controller, String methodName, String[] parameterTypes, String httpMethod, String path) {
+            this.controller = controller;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+            this.httpMethod = httpMethod;
+            this.path = path;
+        }
+
+        public String getController() {
+            return controller;
+        }
+
+        public String getHttpMethod() {
+            return httpMethod;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Looks the handler method up directly, without going through all the methods.
+         */
+        public Method resolve(Class<?> controllerClass) {
+            try {
+                Class<?>[] types = new Class<?>[parameterTypes.length];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    types[i] = ClassUtils.forName(parameterTypes[i], controllerClass.getClassLoader());
+                }
+                Method method = controllerClass.getMethod(methodName, types);
+                if (method.getAnnotation(RouterHandler.class) == null) {
+                    throw outOfDate("is no longer a handler", null);
+                }
+                return method;
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                throw outOfDate("was not found", e);
+            }
+        }
+
+        private IllegalStateException outOfDate(String reason, Exception cause) {
+            return new IllegalStateException("The route index is out of date, " + controller + "." +
+                    methodName + " " + reason + ", recompile the handlers", cause);
+        }
+    }
+}
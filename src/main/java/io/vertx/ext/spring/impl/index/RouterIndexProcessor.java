@@ -0,0 +1,186 @@
+package io.vertx.ext.spring.impl.index;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import io.vertx.ext.spring.annotation.RouterHandler;
+import io.vertx.ext.spring.annotation.RouterPathVariable;
+import io.vertx.ext.spring.annotation.VertxConsumer;
+import io.vertx.ext.spring.annotation.VertxRouter;
+
+/**
+ * Writes the {@link RouterIndex} of the {@link VertxRouter} and {@link VertxConsumer}
+ * classes being compiled.
+ * <p>The routes are checked on the way: two handlers on the same method and path, the
+ * names of the path variables aside, or a {@link RouterPathVariable} missing from the path,
+ * fail the compilation.
+ * <p>The index only covers the classes of one compilation, a build compiling part of the
+ * handlers writes a partial index. The classes it misses are only found when
+ * {@code scan-unindexed} is set on the router.
+ */
+@SupportedAnnotationTypes({"io.vertx.ext.spring.annotation.VertxRouter",
+        "io.vertx.ext.spring.annotation.VertxConsumer"})
+public class RouterIndexProcessor extends AbstractProcessor {
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile(":(\\w+)");
+
+    private final List<String> lines = new ArrayList<>();
+
+    private final Set<String> consumers = new LinkedHashSet<>();
+
+    private final Map<String, Element> routes = new HashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(VertxRouter.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                processController((TypeElement) element);
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(VertxConsumer.class)) {
+            Element type = element.getEnclosingElement();
+            // a router is registered already, its bean registers its consumers when the routes are built
+            if (type.getKind() == ElementKind.CLASS && type.getAnnotation(VertxRouter.class) == null
+                    && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+                String consumer = processingEnv.getElementUtils().getBinaryName((TypeElement) type).toString();
+                if (consumers.add(consumer)) {
+                    lines.add(RouterIndex.CONSUMER + RouterIndex.SEPARATOR + consumer);
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !lines.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void processController(TypeElement controller) {
+        String prefix = controller.getAnnotation(VertxRouter.class).value();
+        for (Element member : processingEnv.getElementUtils().getAllMembers(controller)) {
+            RouterHandler mapping = member.getAnnotation(RouterHandler.class);
+            if (member.getKind() != ElementKind.METHOD || mapping == null
+                    || !member.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) member;
+            String path = prefix + mapping.value();
+            String route = mapping.method() + " " + path;
+            // the names of the variables do not tell two paths apart, the route table neither
+            Element previous = routes.put(mapping.method() + " " + PATH_VARIABLE.matcher(path).replaceAll(":"),
+                    method);
+            if (previous != null) {
+                error(method, "Duplicate route " + route + ", already handled by " +
+                        previous.getEnclosingElement() + "." + previous.getSimpleName());
+            }
+            lines.add(line(controller, method, mapping, path));
+        }
+    }
+
+    private String line(TypeElement controller, ExecutableElement method, RouterHandler mapping, String path) {
+        Set<String> pathVariables = new LinkedHashSet<>();
+        Matcher matcher = PATH_VARIABLE.matcher(path);
+        while (matcher.find()) {
+            pathVariables.add(matcher.group(1));
+        }
+        StringBuilder types = new StringBuilder();
+        for (VariableElement parameter : method.getParameters()) {
+            if (types.length() > 0) {
+                types.append(',');
+            }
+            types.append(typeName(parameter.asType()));
+            checkPathVariable(parameter, method, pathVariables);
+        }
+        return processingEnv.getElementUtils().getBinaryName(controller).toString() + RouterIndex.SEPARATOR +
+                method.getSimpleName() + RouterIndex.SEPARATOR +
+                types + RouterIndex.SEPARATOR +
+                mapping.method() + RouterIndex.SEPARATOR +
+                path;
+    }
+
+    private void checkPathVariable(VariableElement parameter, ExecutableElement method, Set<String> pathVariables) {
+        RouterPathVariable pathVariable = parameter.getAnnotation(RouterPathVariable.class);
+        if (pathVariable == null) {
+            return;
+        }
+        String name = nameOf(pathVariable.name(), pathVariable.value(), parameter.getSimpleName().toString());
+        if (!pathVariables.contains(name)) {
+            error(parameter, "Unknown path variable \"" + name + "\" in " +
+                    method.getEnclosingElement() + "." + method.getSimpleName() + ", the path declares " +
+                    pathVariables);
+        }
+    }
+
+    private static String nameOf(String name, String value, String paramName) {
+        if (!name.isEmpty()) {
+            return name;
+        }
+        return value.isEmpty() ? paramName : value;
+    }
+
+    private String typeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+                return processingEnv.getElementUtils().getBinaryName(element).toString();
+            case TYPEVAR:
+                return typeName(processingEnv.getTypeUtils().erasure(type));
+            default:
+                return type.toString();
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    RouterIndex.LOCATION);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# generated by " + RouterIndexProcessor.class.getName() + "\n");
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write the route index: " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,147 @@
+package io.vertx.ext.spring.impl.jdbc;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the JDBC work of a {@code <vertx:jdbc>} bean which should not go through the
+ * Vert.x worker pool: row streams and batches, on a worker pool of its own.
+ * <p>Statements get the fetch size and query timeout of the bean.
+ */
+public class JdbcExecutor implements DisposableBean {
+
+    @Autowired
+    Vertx vertx;
+
+    private final String name;
+
+    private final DataSource dataSource;
+
+    private int workerPoolSize = 10;
+
+    private int fetchSize = 100;
+
+    private int queryTimeout;
+
+    private WorkerExecutor executor;
+
+    public JdbcExecutor(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public void setWorkerPoolSize(int workerPoolSize) {
+        this.workerPoolSize = workerPoolSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public void setQueryTimeout(int queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+    /**
+     * Streams the rows of a query, fetching them by fetch size as they are read.
+     * <p>The query runs once a handler is set, and its connection is released at the end of
+     * the rows, on a failure or when the stream is closed. Returned by a router handler, the
+     * rows are written to the response as they come, the query waiting while the client
+     * does not keep up.
+     */
+    public ReadStream<JsonObject> queryStream(String sql, JsonArray params) {
+        return new JdbcRowStream(this, sql, params);
+    }
+
+    /**
+     * Executes a statement once for every set of parameters, in a single {@code executeBatch}
+     * and a single transaction, returning the update counts.
+     */
+    public void batch(String sql, List<JsonArray> batch, Handler<AsyncResult<List<Integer>>> handler) {
+        executor().<List<Integer>>executeBlocking((future) -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setQueryTimeout(queryTimeout);
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    for (JsonArray params : batch) {
+                        setParams(statement, params);
+                        statement.addBatch();
+                    }
+                    int[] counts = statement.executeBatch();
+                    connection.commit();
+                    List<Integer> result = new ArrayList<>(counts.length);
+                    for (int count : counts) {
+                        result.add(count);
+                    }
+                    future.complete(result);
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                future.fail(e);
+            }
+        }, false, handler);
+    }
+
+    synchronized WorkerExecutor executor() {
+        if (executor == null) {
+            executor = vertx.createSharedWorkerExecutor(name, workerPoolSize);
+        }
+        return executor;
+    }
+
+    Connection connect() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    PreparedStatement prepare(Connection connection, String sql, JsonArray params) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setFetchSize(fetchSize);
+        statement.setQueryTimeout(queryTimeout);
+        setParams(statement, params);
+        return statement;
+    }
+
+    int getFetchSize() {
+        return fetchSize;
+    }
+
+    static void setParams(PreparedStatement statement, JsonArray params) throws SQLException {
+        if (params == null) {
+            return;
+        }
+        for (int i = 0; i < params.size(); i++) {
+            Object value = params.getValue(i);
+            if (value instanceof JsonObject || value instanceof JsonArray) {
+                value = value.toString();
+            }
+            statement.setObject(i + 1, value);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.vertx.ext.spring.impl.jdbc;
+
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The rows of a query, see {@link JdbcExecutor#queryStream}.
+ * <p>Rows are fetched by fetch size on the worker pool of the executor, the next batch
+ * being read only once the previous one was handled and the stream is not paused. All
+ * the other calls happen on the Vert.x context which set the handler.
+ */
+public class JdbcRowStream implements ReadStream<JsonObject>, AutoCloseable {
+
+    private final JdbcExecutor executor;
+
+    private final String sql;
+
+    private final JsonArray params;
+
+    private final Deque<JsonObject> pending = new ArrayDeque<>();
+
+    private Handler<JsonObject> handler;
+
+    private Handler<Void> endHandler;
+
+    private Handler<Throwable> exceptionHandler;
+
+    private boolean paused;
+
+    private boolean reading;
+
+    private boolean last;
+
+    private boolean closed;
+
+    // only touched on the worker pool, one batch at a time
+    private Connection connection;
+
+    private PreparedStatement statement;
+
+    private ResultSet resultSet;
+
+    private String[] columns;
+
+    JdbcRowStream(JdbcExecutor executor, String sql, JsonArray params) {
+        this.executor = executor;
+        this.sql = sql;
+        this.params = params;
+    }
+
+    @Override
+    public JdbcRowStream exceptionHandler(Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public JdbcRowStream handler(Handler<JsonObject> handler) {
+        boolean start = this.handler == null && handler != null;
+        this.handler = handler;
+        if (start) {
+            read();
+        }
+        return this;
+    }
+
+    @Override
+    public JdbcRowStream pause() {
+        paused = true;
+        return this;
+    }
+
+    @Override
+    public JdbcRowStream resume() {
+        if (paused) {
+            paused = false;
+            deliver();
+        }
+        return this;
+    }
+
+    @Override
+    public JdbcRowStream endHandler(Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    /**
+     * Stops the query and releases its connection, the end handler is not called.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.clear();
+        executor.executor().executeBlocking((future) -> {
+            release();
+            future.complete();
+        }, true, null);
+    }
+
+    private void read() {
+        reading = true;
+        executor.executor().<List<JsonObject>>executeBlocking((future) -> {
+            try {
+                future.complete(fetch());
+            } catch (Throwable e) {
+                // whatever went wrong, the connection is not read any further
+                release();
+                future.fail(e);
+            }
+        }, true, (ar) -> {
+            reading = false;
+            if (closed) {
+                return;
+            }
+            if (ar.failed()) {
+                closed = true;
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(ar.cause());
+                }
+                return;
+            }
+            pending.addAll(ar.result());
+            deliver();
+        });
+    }
+
+    private void deliver() {
+        while (!paused && !closed && !pending.isEmpty()) {
+            handler.handle(pending.poll());
+        }
+        if (paused || closed || reading || !pending.isEmpty()) {
+            return;
+        }
+        if (last) {
+            closed = true;
+            if (endHandler != null) {
+                endHandler.handle(null);
+            }
+        } else {
+            read();
+        }
+    }
+
+    private List<JsonObject> fetch() throws SQLException {
+        if (resultSet == null) {
+            connection = executor.connect();
+            statement = executor.prepare(connection, sql, params);
+            resultSet = statement.executeQuery();
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            columns = new String[metaData.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = metaData.getColumnLabel(i + 1);
+            }
+        }
+        List<JsonObject> rows = new ArrayList<>(executor.getFetchSize());
+        while (rows.size() < executor.getFetchSize()) {
+            if (!resultSet.next()) {
+                last = true;
+                release();
+                break;
+            }
+            JsonObject row = new JsonObject();
+            for (int i = 0; i < columns.length; i++) {
+                row.put(columns[i], value(resultSet.getObject(i + 1)));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Object value(Object value) throws SQLException {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof byte[]) {
+            return value;
+        }
+        if (value instanceof Number) {
+            // a BigDecimal would lose its precision as a double
+            return value instanceof BigDecimal ? value.toString() : value;
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toInstant();
+        }
+        if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            return clob.getSubString(1, (int) clob.length());
+        }
+        if (value instanceof Blob) {
+            Blob blob = (Blob) value;
+            return blob.getBytes(1, (int) blob.length());
+        }
+        return value.toString();
+    }
+
+    private void release() {
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (statement != null) {
+                statement.close();
+            }
+        } catch (SQLException ignored) {
+            // the connection is closed anyway
+        } finally {
+            resultSet = null;
+            statement = null;
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // nothing left to release
+                }
+                connection = null;
+            }
+        }
+    }
+}
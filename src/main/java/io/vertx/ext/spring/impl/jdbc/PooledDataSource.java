@@ -0,0 +1,717 @@
+package io.vertx.ext.spring.impl.jdbc;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.spring.impl.metrics.LatencyHistogram;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A connection pool in front of the {@code DataSource} of a {@code <vertx:jdbc>} bean.
+ * <p>Every pooled connection keeps its prepared statements, up to the statement cache size,
+ * the least recently used one being closed first. Closing a cached statement only clears
+ * its parameters, preparing the same SQL again while it is open gets a statement of its own.
+ * Statements a borrower leaves open are closed when it gives the connection back.
+ * <p>The time spent waiting for a connection is measured, and statements running longer
+ * than the slow query threshold are logged.
+ * <p>In adaptive mode the maximum size moves between the minimum and maximum sizes: it grows
+ * by a quarter when the connections were waited for longer than the target wait over the
+ * last interval, and shrinks by one when less than half of the connections were used.
+ */
+public class PooledDataSource implements DataSource, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledDataSource.class);
+
+    @Autowired
+    Vertx vertx;
+
+    private final String name;
+
+    private final DataSource target;
+
+    private int minSize = 1;
+
+    private int maxSize = 10;
+
+    private volatile int size;
+
+    private long acquireTimeout = 30000;
+
+    private int statementCacheSize = 64;
+
+    private long slowQueryNanos = TimeUnit.SECONDS.toNanos(1);
+
+    private boolean adaptive;
+
+    private long adaptiveInterval = 5000;
+
+    private long targetWaitNanos = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition available = lock.newCondition();
+
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+    private int open;
+
+    private int waiting;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger peakActive = new AtomicInteger();
+
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+
+    private final LongAdder intervalWaits = new LongAdder();
+
+    private final LongAdder intervalWaitNanos = new LongAdder();
+
+    private final LongAdder statementHits = new LongAdder();
+
+    private final LongAdder statementMisses = new LongAdder();
+
+    private final LongAdder slowQueries = new LongAdder();
+
+    private long timer = -1;
+
+    public PooledDataSource(String name, DataSource target) {
+        this.name = name;
+        this.target = target;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        this.minSize = minPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxSize = maxPoolSize;
+    }
+
+    public void setAcquireTimeout(long acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThreshold);
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public void setAdaptiveInterval(long adaptiveInterval) {
+        this.adaptiveInterval = adaptiveInterval;
+    }
+
+    public void setTargetWait(long targetWait) {
+        this.targetWaitNanos = TimeUnit.MILLISECONDS.toNanos(targetWait);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // an adaptive pool starts small and grows with the load
+        size = adaptive ? minSize : maxSize;
+        if (adaptive) {
+            timer = vertx.setPeriodic(adaptiveInterval, (id) -> adapt());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The number of connections the pool may open at the moment.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int getOpen() {
+        lock.lock();
+        try {
+            return open;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdle() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public double getUtilization() {
+        return (double) active.get() / size;
+    }
+
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    public long getStatementHits() {
+        return statementHits.sum();
+    }
+
+    public long getStatementMisses() {
+        return statementMisses.sum();
+    }
+
+    public long getSlowQueries() {
+        return slowQueries.sum();
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("name", name)
+                .put("size", getSize())
+                .put("open", getOpen())
+                .put("idle", getIdle())
+                .put("active", getActive())
+                .put("waiting", getWaiting())
+                .put("utilization", getUtilization())
+                .put("acquireTime", acquireTime.toJson())
+                .put("statementHits", getStatementHits())
+                .put("statementMisses", getStatementMisses())
+                .put("slowQueries", getSlowQueries());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        PooledConnection connection = acquire(start);
+        acquireTime.record(System.nanoTime() - start);
+        int current = active.incrementAndGet();
+        peakActive.accumulateAndGet(current, Math::max);
+        return connection.checkout();
+    }
+
+    private PooledConnection acquire(long start) throws SQLException {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeout);
+        long blocked = 0;
+        lock.lock();
+        try {
+            while (true) {
+                PooledConnection connection = idle.pollFirst();
+                if (connection != null) {
+                    return connection;
+                }
+                if (open < size) {
+                    open++;
+                    break;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SQLTimeoutException("No connection of " + name + " available within "
+                            + acquireTimeout + " ms, " + open + " in use");
+                }
+                waiting++;
+                long blockedAt = System.nanoTime();
+                try {
+                    available.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection of " + name, e);
+                } finally {
+                    waiting--;
+                    blocked += System.nanoTime() - blockedAt;
+                }
+            }
+        } finally {
+            lock.unlock();
+            // only the time spent blocked drives the size, connecting is not a sign of contention
+            intervalWaits.increment();
+            intervalWaitNanos.add(blocked);
+        }
+        // connect out of the lock, the slot is taken already
+        try {
+            return new PooledConnection(target.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            discarded();
+            throw e;
+        }
+    }
+
+    private void release(PooledConnection connection) {
+        active.decrementAndGet();
+        boolean reusable = connection.reset();
+        lock.lock();
+        try {
+            if (reusable && open <= size) {
+                // most recently used first, so the others can go idle and be trimmed
+                idle.addFirst(connection);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        connection.closePhysically();
+        discarded();
+    }
+
+    private void discarded() {
+        lock.lock();
+        try {
+            open--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adapt() {
+        long waits = intervalWaits.sumThenReset();
+        long waitNanos = intervalWaitNanos.sumThenReset();
+        int peak = peakActive.getAndSet(active.get());
+        int current = size;
+        int next = current;
+        if (waits > 0 && waitNanos / waits > targetWaitNanos) {
+            next = Math.min(maxSize, current + Math.max(1, current / 4));
+        } else if (peak < current / 2) {
+            next = Math.max(minSize, current - 1);
+        }
+        if (next == current) {
+            return;
+        }
+        logger.debug("Pool " + name + " resized from " + current + " to " + next);
+        lock.lock();
+        try {
+            size = next;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (next < current) {
+            vertx.executeBlocking((future) -> {
+                trim();
+                future.complete();
+            }, false, null);
+        }
+    }
+
+    private void trim() {
+        List<PooledConnection> closing = new ArrayList<>();
+        lock.lock();
+        try {
+            while (open > size && !idle.isEmpty()) {
+                closing.add(idle.pollLast());
+                open--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closing.forEach(PooledConnection::closePhysically);
+    }
+
+    @Override
+    public void destroy() {
+        if (timer != -1) {
+            vertx.cancelTimer(timer);
+        }
+        List<PooledConnection> closing;
+        lock.lock();
+        try {
+            closing = new ArrayList<>(idle);
+            open -= idle.size();
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+        closing.forEach(PooledConnection::closePhysically);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The connections of " + name + " all use the same credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        return type.isInstance(this) ? type.cast(this) : target.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(this) || target.isWrapperFor(type);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A physical connection, handed out behind a proxy whose {@code close} gives it back.
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+
+        private final Map<String, CachedStatement> statements;
+
+        /**
+         * The statements handed out to the current borrower and not closed yet.
+         */
+        private final List<StatementHandler> borrowed = new ArrayList<>();
+
+        private Connection handle;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= statementCacheSize) {
+                        return false;
+                    }
+                    eldest.getValue().evicted();
+                    return true;
+                }
+            };
+        }
+
+        Connection checkout() {
+            Connection[] self = new Connection[1];
+            self[0] = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (handle == self[0]) {
+                                    handle = null;
+                                    closeBorrowed();
+                                    release(this);
+                                }
+                                return null;
+                            case "isClosed":
+                                return handle != self[0] || physical.isClosed();
+                            case "prepareStatement":
+                                if (handle != self[0]) {
+                                    throw new SQLException("Connection closed");
+                                }
+                                return args.length == 1
+                                        ? prepare((String) args[0], self[0])
+                                        : timed(invoke(physical, method, args), PreparedStatement.class,
+                                                (String) args[0], self[0]);
+                            case "createStatement":
+                            case "prepareCall":
+                                if (handle != self[0]) {
+                                    throw new SQLException("Connection closed");
+                                }
+                                return timed(invoke(physical, method, args), method.getReturnType(),
+                                        args != null && args.length > 0 ? (String) args[0] : null, self[0]);
+                            case "unwrap":
+                                return ((Class<?>) args[0]).isInstance(proxy) ? proxy : physical.unwrap((Class<?>) args[0]);
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                if (handle != self[0]) {
+                                    throw new SQLException("Connection closed");
+                                }
+                                return invoke(physical, method, args);
+                        }
+                    });
+            handle = self[0];
+            return handle;
+        }
+
+        private Object prepare(String sql, Connection owner) throws SQLException {
+            if (statementCacheSize <= 0) {
+                return timed(physical.prepareStatement(sql), PreparedStatement.class, sql, owner);
+            }
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse) {
+                statementHits.increment();
+                return borrow(cached.physical, PreparedStatement.class, sql, owner, cached.use());
+            }
+            statementMisses.increment();
+            PreparedStatement statement = physical.prepareStatement(sql);
+            if (cached != null) {
+                // the cached one is still open, this one is not kept
+                return timed(statement, PreparedStatement.class, sql, owner);
+            }
+            cached = new CachedStatement(statement, sql);
+            statements.put(sql, cached);
+            return borrow(statement, PreparedStatement.class, sql, owner, cached.use());
+        }
+
+        private Object timed(Object statement, Class<?> type, String sql, Connection owner) {
+            return borrow((Statement) statement, type, sql, owner, null);
+        }
+
+        private Object borrow(Statement statement, Class<?> type, String sql, Connection owner,
+                              CachedStatement cached) {
+            StatementHandler handler = new StatementHandler(statement, sql, owner, cached, this);
+            borrowed.add(handler);
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        /**
+         * Closes what the borrower left open, so that it cannot run on the next borrower's
+         * connection, and gives the cached statements back.
+         */
+        private void closeBorrowed() {
+            while (!borrowed.isEmpty()) {
+                try {
+                    borrowed.get(borrowed.size() - 1).close();
+                } catch (SQLException e) {
+                    logger.warn("Statement of " + name + " not closed: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Readies the connection for the next borrower, {@code false} when it cannot be reused.
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                logger.warn("Connection of " + name + " dropped: " + e.getMessage());
+                return false;
+            }
+        }
+
+        void closePhysically() {
+            for (CachedStatement statement : statements.values()) {
+                statement.evicted();
+            }
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                logger.warn("Connection of " + name + " not closed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A prepared statement kept open by its connection.
+     */
+    private final class CachedStatement {
+
+        final PreparedStatement physical;
+
+        final String sql;
+
+        private final int fetchSize;
+
+        private final int queryTimeout;
+
+        private final int maxRows;
+
+        boolean inUse;
+
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement physical, String sql) throws SQLException {
+            this.physical = physical;
+            this.sql = sql;
+            this.fetchSize = physical.getFetchSize();
+            this.queryTimeout = physical.getQueryTimeout();
+            this.maxRows = physical.getMaxRows();
+        }
+
+        CachedStatement use() {
+            inUse = true;
+            return this;
+        }
+
+        void returned() throws SQLException {
+            inUse = false;
+            if (evicted) {
+                physical.close();
+                return;
+            }
+            physical.clearParameters();
+            physical.clearBatch();
+            physical.clearWarnings();
+            // the settings of a borrower do not carry over to the next one, the maximum rows
+            // first as some drivers refuse a fetch size above it
+            if (physical.getMaxRows() != maxRows) {
+                physical.setMaxRows(maxRows);
+            }
+            if (physical.getFetchSize() != fetchSize) {
+                physical.setFetchSize(fetchSize);
+            }
+            if (physical.getQueryTimeout() != queryTimeout) {
+                physical.setQueryTimeout(queryTimeout);
+            }
+        }
+
+        void evicted() {
+            evicted = true;
+            if (inUse) {
+                // closed when its borrower gives it back
+                return;
+            }
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                logger.warn("Statement of " + name + " not closed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Times the executions of a statement, and keeps a cached one open when it is closed.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement physical;
+
+        private final String sql;
+
+        private final Connection owner;
+
+        private final CachedStatement cached;
+
+        private final PooledConnection connection;
+
+        private boolean closed;
+
+        StatementHandler(Statement physical, String sql, Connection owner, CachedStatement cached,
+                         PooledConnection connection) {
+            this.physical = physical;
+            this.sql = sql;
+            this.owner = owner;
+            this.cached = cached;
+            this.connection = connection;
+        }
+
+        void close() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            connection.borrowed.remove(this);
+            if (cached != null) {
+                cached.returned();
+            } else {
+                physical.close();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            switch (methodName) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement closed");
+                    }
+                    if (!methodName.startsWith("execute")) {
+                        return PooledDataSource.invoke(physical, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return PooledDataSource.invoke(physical, method, args);
+                    } finally {
+                        long elapsed = System.nanoTime() - start;
+                        if (elapsed > slowQueryNanos) {
+                            slowQueries.increment();
+                            logger.warn("Slow query on " + name + " (" + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                                    + " ms): " + (sql != null || args == null ? sql : args[0]));
+                        }
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.vertx.ext.spring.impl.metrics;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.metrics.impl.DummyVertxMetrics;
+import io.vertx.core.spi.VertxMetricsFactory;
+import io.vertx.core.spi.metrics.HttpClientMetrics;
+import io.vertx.core.spi.metrics.VertxMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Vert.x metrics feeding {@link HttpClientPoolMetrics}, everything else is left
+ * unmeasured.
+ * <p>A client is matched with its measures through the metrics name of its options, which
+ * the client factories set to the bean name.
+ */
+public class ClientMetrics extends DummyVertxMetrics {
+
+    private final Map<String, HttpClientPoolMetrics> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the client metrics of the Vert.x instance, {@code null} when it was not
+     * created with {@link #factory()}.
+     */
+    public static ClientMetrics of(Vertx vertx) {
+        VertxMetrics metrics = ((VertxInternal) vertx).metricsSPI();
+        return metrics instanceof ClientMetrics ? (ClientMetrics) metrics : null;
+    }
+
+    public static VertxMetricsFactory factory() {
+        return (Vertx vertx, VertxOptions options) -> new ClientMetrics();
+    }
+
+    public void register(HttpClientPoolMetrics metrics) {
+        clients.put(metrics.getName(), metrics);
+    }
+
+    @Override
+    public HttpClientMetrics<?, ?, ?, ?, ?> createMetrics(HttpClient client, HttpClientOptions options) {
+        HttpClientPoolMetrics metrics = options.getMetricsName() != null
+                ? clients.get(options.getMetricsName())
+                : null;
+        return metrics != null ? metrics : super.createMetrics(client, options);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,201 @@
+package io.vertx.ext.spring.impl.metrics;
+
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.spi.metrics.HttpClientMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The connection pool measures of an HTTP client bean, fed by Vert.x through its metrics
+ * SPI, see {@link ClientMetrics}.
+ * <p>A request waits from the moment it asks the pool for a connection until it gets one,
+ * that wait is the acquire time. It is then active until its response ends or it is
+ * reset. Idle connections are the open ones with no active request, exact as long as
+ * pipelining and HTTP/2 are not used.
+ * <p>All the clients created for the same bean, one per event loop when the bean is event
+ * loop scoped, add up in the same measures.
+ */
+public class HttpClientPoolMetrics implements HttpClientMetrics<Long, Void, Void, Void, Long> {
+
+    private final String name;
+
+    private final LongAdder connections = new LongAdder();
+
+    private final LongAdder waiting = new LongAdder();
+
+    private final LongAdder active = new LongAdder();
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder resets = new LongAdder();
+
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+
+    public HttpClientPoolMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getConnections() {
+        return connections.sum();
+    }
+
+    public long getWaiting() {
+        return waiting.sum();
+    }
+
+    public long getActive() {
+        return active.sum();
+    }
+
+    public long getIdle() {
+        return Math.max(0, getConnections() - getActive());
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getResets() {
+        return resets.sum();
+    }
+
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    public LatencyHistogram getResponseTime() {
+        return responseTime;
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("name", name)
+                .put("connections", getConnections())
+                .put("idle", getIdle())
+                .put("active", getActive())
+                .put("waiting", getWaiting())
+                .put("requests", getRequests())
+                .put("resets", getResets())
+                .put("acquireTime", acquireTime.toJson())
+                .put("responseTime", responseTime.toJson());
+    }
+
+    @Override
+    public Void createEndpoint(String host, int port, int maxPoolSize) {
+        return null;
+    }
+
+    @Override
+    public void closeEndpoint(String host, int port, Void endpointMetric) {
+    }
+
+    @Override
+    public Long enqueueRequest(Void endpointMetric) {
+        waiting.increment();
+        return System.nanoTime();
+    }
+
+    @Override
+    public void dequeueRequest(Void endpointMetric, Long enqueued) {
+        waiting.decrement();
+        acquireTime.record(System.nanoTime() - enqueued);
+    }
+
+    @Override
+    public void endpointConnected(Void endpointMetric, Void socketMetric) {
+        connections.increment();
+    }
+
+    @Override
+    public void endpointDisconnected(Void endpointMetric, Void socketMetric) {
+        connections.decrement();
+    }
+
+    @Override
+    public Long requestBegin(Void endpointMetric, Void socketMetric, SocketAddress localAddress,
+                             SocketAddress remoteAddress, HttpClientRequest request) {
+        requests.increment();
+        active.increment();
+        return System.nanoTime();
+    }
+
+    @Override
+    public void requestEnd(Long requestMetric) {
+    }
+
+    @Override
+    public void responseBegin(Long requestMetric, HttpClientResponse response) {
+    }
+
+    @Override
+    public Long responsePushed(Void endpointMetric, Void socketMetric, SocketAddress localAddress,
+                               SocketAddress remoteAddress, HttpClientRequest request) {
+        return null;
+    }
+
+    @Override
+    public void requestReset(Long requestMetric) {
+        if (requestMetric != null) {
+            resets.increment();
+            active.decrement();
+        }
+    }
+
+    @Override
+    public void responseEnd(Long requestMetric, HttpClientResponse response) {
+        if (requestMetric != null) {
+            active.decrement();
+            responseTime.record(System.nanoTime() - requestMetric);
+        }
+    }
+
+    @Override
+    public Void connected(Void endpointMetric, Void socketMetric, WebSocket webSocket) {
+        return null;
+    }
+
+    @Override
+    public void disconnected(Void webSocketMetric) {
+    }
+
+    @Override
+    public Void connected(SocketAddress remoteAddress, String remoteName) {
+        return null;
+    }
+
+    @Override
+    public void disconnected(Void socketMetric, SocketAddress remoteAddress) {
+    }
+
+    @Override
+    public void bytesRead(Void socketMetric, SocketAddress remoteAddress, long numberOfBytes) {
+    }
+
+    @Override
+    public void bytesWritten(Void socketMetric, SocketAddress remoteAddress, long numberOfBytes) {
+    }
+
+    @Override
+    public void exceptionOccurred(Void socketMetric, SocketAddress remoteAddress, Throwable t) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean isEnabled() {
+        return true;
+    }
+}
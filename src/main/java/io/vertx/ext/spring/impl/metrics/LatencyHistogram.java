@@ -0,0 +1,142 @@
+package io.vertx.ext.spring.impl.metrics;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with log-linear buckets, in the spirit of HdrHistogram.
+ * <p>Values are nanoseconds. Each power of two range is split in 16 buckets, so a value
+ * is reported within 1/16th of its magnitude. The buckets are striped by thread: every
+ * event loop mostly increments its own counters and a read sums the stripes.
+ * Values over about 18 minutes are recorded as 18 minutes.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final long HIGHEST_VALUE = (1L << 40) - 1;
+
+    private static final int BUCKETS = bucket(HIGHEST_VALUE) + 1;
+
+    private static final int MAX_STRIPES = 8;
+
+    private static final int STRIPES = stripes();
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    private static int stripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = Integer.highestOneBit(Math.max(1, processors - 1)) << 1;
+        return Math.min(stripes, MAX_STRIPES);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        } else if (nanos > HIGHEST_VALUE) {
+            nanos = HIGHEST_VALUE;
+        }
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        stripes[stripe].incrementAndGet(bucket(nanos));
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * The highest value reported by the bucket.
+     */
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = this.count.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * The value under which the given percentage of the recorded values fall.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long bucketCount = stripe.get(i);
+                counts[i] += bucketCount;
+                total += bucketCount;
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * A summary of the histogram in microseconds.
+     */
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("count", getCount())
+                .put("mean", getMean() / 1000)
+                .put("p50", micros(getValueAtPercentile(50)))
+                .put("p90", micros(getValueAtPercentile(90)))
+                .put("p99", micros(getValueAtPercentile(99)))
+                .put("p999", micros(getValueAtPercentile(99.9)))
+                .put("max", micros(getMax()));
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,140 @@
+package io.vertx.ext.spring.impl.metrics;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.spring.impl.handler.ResponseHooks;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The measures of one handler route.
+ * <p>Execution time runs from the call of the handler to the end of the response, so an
+ * asynchronous handler is measured until its result is written. Worker routes also record
+ * the time spent waiting for a worker thread as queue time. A request fails when it is
+ * routed to the failure handler or answered with a {@code 5xx} status.
+ * <p>The measure of a request ends with its response, or with the connection when it
+ * closes first.
+ */
+public class RouteMetrics {
+
+    private static final String TIMER_KEY = RouteMetrics.class.getName() + ".timer";
+
+    private final HttpMethod method;
+
+    private final String path;
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder inFlight = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LatencyHistogram queueTime = new LatencyHistogram();
+
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+
+    RouteMetrics(HttpMethod method, String path) {
+        this.method = method;
+        this.path = path;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram getQueueTime() {
+        return queueTime;
+    }
+
+    public LatencyHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    /**
+     * Measures the requests reaching the route, called on the event loop.
+     */
+    public Handler<RoutingContext> arrival(Handler<RoutingContext> handler) {
+        return (context) -> {
+            Timer timer = new Timer(System.nanoTime());
+            context.put(TIMER_KEY, timer);
+            requests.increment();
+            inFlight.increment();
+            ResponseHooks.onDone(context, (v) -> timer.end(context));
+            handler.handle(context);
+        };
+    }
+
+    /**
+     * Marks the start of a worker handler, the time since its arrival is queue time.
+     */
+    public Handler<RoutingContext> execution(Handler<RoutingContext> handler) {
+        return (context) -> {
+            Timer timer = context.get(TIMER_KEY);
+            if (timer != null) {
+                timer.start(System.nanoTime());
+            }
+            handler.handle(context);
+        };
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("method", method.name())
+                .put("path", path)
+                .put("requests", getRequests())
+                .put("inFlight", getInFlight())
+                .put("errors", getErrors())
+                .put("queueTime", queueTime.toJson())
+                .put("executionTime", executionTime.toJson());
+    }
+
+    private final class Timer {
+
+        private final long arrived;
+
+        private volatile long started;
+
+        private boolean ended;
+
+        Timer(long arrived) {
+            this.arrived = arrived;
+        }
+
+        void start(long now) {
+            started = now;
+            queueTime.record(now - arrived);
+        }
+
+        // always called on the event loop of the request
+        void end(RoutingContext context) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            long started = this.started;
+            executionTime.record(System.nanoTime() - (started != 0 ? started : arrived));
+            if (context.failed() || context.response().getStatusCode() >= 500) {
+                errors.increment();
+            }
+            inFlight.decrement();
+        }
+    }
+}
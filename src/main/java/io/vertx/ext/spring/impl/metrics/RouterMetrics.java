@@ -0,0 +1,52 @@
+package io.vertx.ext.spring.impl.metrics;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The measures of every handler route of the router, keyed by method and path.
+ * <p>Inject it to read the measures, or set a {@code metrics-path} on the router to
+ * publish them as JSON.
+ */
+public class RouterMetrics {
+
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    public RouteMetrics register(HttpMethod method, String path) {
+        return routes.computeIfAbsent(method + " " + path, (key) -> new RouteMetrics(method, path));
+    }
+
+    public RouteMetrics getRoute(HttpMethod method, String path) {
+        return routes.get(method + " " + path);
+    }
+
+    public Collection<RouteMetrics> getRoutes() {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    public JsonObject toJson() {
+        JsonArray array = new JsonArray();
+        for (RouteMetrics route : routes.values()) {
+            array.add(route.toJson());
+        }
+        return new JsonObject().put("routes", array);
+    }
+
+    /**
+     * A handler answering with the JSON form of the measures.
+     */
+    public Handler<RoutingContext> handler() {
+        return (context) -> context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .end(toJson().encodePrettily());
+    }
+}
@@ -2,19 +2,29 @@ package io.vertx.ext.spring.impl.parser;
 
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
 import org.springframework.beans.factory.xml.BeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
+import org.springframework.core.Conventions;
 import org.w3c.dom.Element;
 
 import io.vertx.ext.spring.impl.factory.HttpClientFactory;
+import io.vertx.ext.spring.impl.metrics.HttpClientPoolMetrics;
 
 /**
  * Created by guoyu on 16/3/14.
  */
 public class HttpClientParser implements BeanDefinitionParser {
 
+  private static final String[] POOL_ATTRIBUTES = {
+    "pipelining-limit", "max-wait-queue-size",
+    "http2-max-pool-size", "http2-multiplexing-limit", "http2-connection-window-size",
+    "idle-timeout", "connect-timeout", "default-host", "default-port", "tcp-no-delay", "use-pooled-buffers",
+    "warm-up", "warm-up-uri"
+  };
+
   @Override
   public BeanDefinition parse(Element element, ParserContext parserContext) {
     BeanDefinitionRegistry registry = parserContext.getRegistry();
@@ -24,8 +34,21 @@ public class HttpClientParser implements BeanDefinitionParser {
     prop.addPropertyValue("keepAlive", element.getAttribute("keep-alive"));
     prop.addPropertyValue("maxPoolSize", element.getAttribute("max-pool-size"));
     prop.addPropertyValue("pipelining", element.getAttribute("pipelining"));
+    for (String attribute : POOL_ATTRIBUTES) {
+      if (element.hasAttribute(attribute)) {
+        prop.addPropertyValue(Conventions.attributeNameToPropertyName(attribute), element.getAttribute(attribute));
+      }
+    }
+    String name = element.hasAttribute("id") ? element.getAttribute("id") : "httpClient";
+    if ("true".equals(element.getAttribute("metrics"))) {
+      GenericBeanDefinition metricsDef = new GenericBeanDefinition();
+      metricsDef.setBeanClass(HttpClientPoolMetrics.class);
+      metricsDef.getConstructorArgumentValues().addGenericArgumentValue(name);
+      registry.registerBeanDefinition(name + "Metrics", metricsDef);
+      prop.addPropertyValue("metrics", new RuntimeBeanReference(name + "Metrics"));
+    }
     def.setPropertyValues(prop);
-    registry.registerBeanDefinition("httpClient", def);
+    ScopedBeans.register(element, name, def, registry);
     return def;
   }
 
@@ -0,0 +1,43 @@
+package io.vertx.ext.spring.impl.parser;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.xml.BeanDefinitionParser;
+import org.springframework.beans.factory.xml.ParserContext;
+import org.springframework.core.Conventions;
+import org.w3c.dom.Element;
+
+import io.vertx.ext.spring.impl.factory.HttpServerOptionsFactory;
+
+public class HttpServerParser implements BeanDefinitionParser {
+
+  public static final String BEAN_NAME = "vertx-spring-web-http-server";
+
+  private static final String[] ATTRIBUTES = {
+    "host", "port", "compression", "compression-level",
+    "http2-max-concurrent-streams", "http2-connection-window-size",
+    "tcp-no-delay", "tcp-fast-open", "tcp-quick-ack", "reuse-port", "accept-backlog", "idle-timeout",
+    "send-buffer-size", "receive-buffer-size",
+    "decoder-initial-buffer-size", "max-initial-line-length", "max-header-size", "max-chunk-size"
+  };
+
+  @Override
+  public BeanDefinition parse(Element element, ParserContext parserContext) {
+    BeanDefinitionRegistry registry = parserContext.getRegistry();
+    GenericBeanDefinition def = new GenericBeanDefinition();
+    MutablePropertyValues prop = new MutablePropertyValues();
+    def.setBeanClass(HttpServerOptionsFactory.class);
+    // each attribute maps to the factory property of the same name, only the ones given are set
+    for (String attribute : ATTRIBUTES) {
+      if (element.hasAttribute(attribute)) {
+        prop.addPropertyValue(Conventions.attributeNameToPropertyName(attribute), element.getAttribute(attribute));
+      }
+    }
+    def.setPropertyValues(prop);
+    registry.registerBeanDefinition(element.hasAttribute("id") ? element.getAttribute("id") : BEAN_NAME, def);
+    return def;
+  }
+
+}
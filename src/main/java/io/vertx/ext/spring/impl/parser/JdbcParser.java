@@ -2,19 +2,32 @@ package io.vertx.ext.spring.impl.parser;
 
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
 import org.springframework.beans.factory.xml.BeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
+import org.springframework.core.Conventions;
 import org.w3c.dom.Element;
 
 import io.vertx.ext.spring.impl.factory.JdbcClientFactory;
+import io.vertx.ext.spring.impl.jdbc.JdbcExecutor;
+import io.vertx.ext.spring.impl.jdbc.PooledDataSource;
 
 /**
  * Created by guoyu on 16/3/14.
  */
 public class JdbcParser implements BeanDefinitionParser {
 
+  private static final String[] STATEMENT_ATTRIBUTES = {
+    "fetch-size", "query-timeout"
+  };
+
+  private static final String[] POOL_ATTRIBUTES = {
+    "min-pool-size", "max-pool-size", "acquire-timeout", "statement-cache-size", "slow-query-threshold",
+    "adaptive", "adaptive-interval", "target-wait"
+  };
+
   @Override
   public BeanDefinition parse(Element element, ParserContext parserContext) {
     BeanDefinitionRegistry registry = parserContext.getRegistry();
@@ -22,9 +35,43 @@ public class JdbcParser implements BeanDefinitionParser {
     MutablePropertyValues prop = new MutablePropertyValues();
     def.setBeanClass(JdbcClientFactory.class);
     String id = element.getAttribute("id");
-    prop.addPropertyValue("dataSourceRef", element.getAttribute("data-source-ref"));
+    String dataSourceRef = element.getAttribute("data-source-ref");
+    if ("true".equals(element.getAttribute("pool"))) {
+      GenericBeanDefinition poolDef = new GenericBeanDefinition();
+      MutablePropertyValues poolProp = new MutablePropertyValues();
+      poolDef.setBeanClass(PooledDataSource.class);
+      poolDef.getConstructorArgumentValues().addGenericArgumentValue(id + "Pool");
+      poolDef.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference(dataSourceRef));
+      for (String attribute : POOL_ATTRIBUTES) {
+        if (element.hasAttribute(attribute)) {
+          poolProp.addPropertyValue(Conventions.attributeNameToPropertyName(attribute), element.getAttribute(attribute));
+        }
+      }
+      poolDef.setPropertyValues(poolProp);
+      registry.registerBeanDefinition(id + "Pool", poolDef);
+      dataSourceRef = id + "Pool";
+    }
+    prop.addPropertyValue("dataSourceRef", dataSourceRef);
+    GenericBeanDefinition executorDef = new GenericBeanDefinition();
+    MutablePropertyValues executorProp = new MutablePropertyValues();
+    executorDef.setBeanClass(JdbcExecutor.class);
+    executorDef.setLazyInit(true);
+    executorDef.getConstructorArgumentValues().addGenericArgumentValue(id + "Executor");
+    executorDef.getConstructorArgumentValues().addGenericArgumentValue(
+      new RuntimeBeanReference(dataSourceRef));
+    for (String attribute : STATEMENT_ATTRIBUTES) {
+      if (element.hasAttribute(attribute)) {
+        prop.addPropertyValue(Conventions.attributeNameToPropertyName(attribute), element.getAttribute(attribute));
+        executorProp.addPropertyValue(Conventions.attributeNameToPropertyName(attribute), element.getAttribute(attribute));
+      }
+    }
+    if (element.hasAttribute("worker-pool-size")) {
+      executorProp.addPropertyValue("workerPoolSize", element.getAttribute("worker-pool-size"));
+    }
     def.setPropertyValues(prop);
+    executorDef.setPropertyValues(executorProp);
     registry.registerBeanDefinition(id, def);
+    registry.registerBeanDefinition(id + "Executor", executorDef);
     return def;
   }
 
@@ -2,19 +2,32 @@ package io.vertx.ext.spring.impl.parser;
 
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
 import org.springframework.beans.factory.xml.BeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
+import org.springframework.core.Conventions;
 import org.w3c.dom.Element;
 
 import io.vertx.ext.spring.impl.factory.RedisClientFactory;
+import io.vertx.ext.spring.impl.redis.RedisNearCache;
 
 /**
  * Created by guoyu on 16/3/14.
  */
 public class RedisClientParser implements BeanDefinitionParser {
 
+  private static final String[] OPTION_ATTRIBUTES = {
+    "auth", "select", "encoding", "binary", "domain-socket-address", "master-name", "sentinels",
+    "tcp-no-delay", "tcp-keep-alive", "connect-timeout", "reconnect-attempts", "reconnect-interval",
+    "connections"
+  };
+
+  private static final String[] NEAR_CACHE_ATTRIBUTES = {
+    "max-entries", "ttl", "channel"
+  };
+
   @Override
   public BeanDefinition parse(Element element, ParserContext parserContext) {
     BeanDefinitionRegistry registry = parserContext.getRegistry();
@@ -24,8 +37,28 @@ public class RedisClientParser implements BeanDefinitionParser {
     String id = element.getAttribute("id");
     prop.addPropertyValue("host", element.getAttribute("host"));
     prop.addPropertyValue("port", element.getAttribute("port"));
+    for (String attribute : OPTION_ATTRIBUTES) {
+      if (element.hasAttribute(attribute)) {
+        prop.addPropertyValue(Conventions.attributeNameToPropertyName(attribute), element.getAttribute(attribute));
+      }
+    }
+    if ("true".equals(element.getAttribute("near-cache"))) {
+      GenericBeanDefinition cacheDef = new GenericBeanDefinition();
+      MutablePropertyValues cacheProp = new MutablePropertyValues();
+      cacheDef.setBeanClass(RedisNearCache.class);
+      cacheDef.getConstructorArgumentValues().addGenericArgumentValue(id);
+      for (String attribute : NEAR_CACHE_ATTRIBUTES) {
+        if (element.hasAttribute("near-cache-" + attribute)) {
+          cacheProp.addPropertyValue(Conventions.attributeNameToPropertyName(attribute),
+            element.getAttribute("near-cache-" + attribute));
+        }
+      }
+      cacheDef.setPropertyValues(cacheProp);
+      registry.registerBeanDefinition(id + "NearCache", cacheDef);
+      prop.addPropertyValue("nearCache", new RuntimeBeanReference(id + "NearCache"));
+    }
     def.setPropertyValues(prop);
-    registry.registerBeanDefinition(id, def);
+    ScopedBeans.register(element, id, def, registry);
     return def;
   }
 
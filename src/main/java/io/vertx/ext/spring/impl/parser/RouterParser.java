@@ -1,39 +1,169 @@
 package io.vertx.ext.spring.impl.parser;
 
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.BeanDefinitionDefaults;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
 import org.springframework.beans.factory.xml.BeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationBeanNameGenerator;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.AnnotationScopeMetadataResolver;
 import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 import org.w3c.dom.Element;
 
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.spring.annotation.VertxConsumer;
 import io.vertx.ext.spring.annotation.VertxRouter;
+import io.vertx.ext.spring.impl.eventbus.ConsumerRegistrar;
 import io.vertx.ext.spring.impl.factory.RouterFactory;
+import io.vertx.ext.spring.impl.index.RouterIndex;
+import io.vertx.ext.spring.impl.metrics.RouterMetrics;
 
 /**
  * Created by guoyu on 16/3/14.
  */
 public class RouterParser implements BeanDefinitionParser {
 
+  private static final Logger logger = LoggerFactory.getLogger(RouterParser.class);
+
   @Override
   public BeanDefinition parse(Element element, ParserContext parserContext) {
     BeanDefinitionRegistry registry = parserContext.getRegistry();
-    ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(parserContext.getRegistry(), false);
-    BeanDefinitionDefaults defaults = new BeanDefinitionDefaults();
-    defaults.setLazyInit(true);
-    scanner.setBeanDefinitionDefaults(defaults);
-    String basePackage = element.getAttribute("base-package");
-    scanner.addIncludeFilter(new AnnotationTypeFilter(VertxRouter.class));
-    scanner.scan(StringUtils.tokenizeToStringArray(basePackage, ConfigurableApplicationContext.CONFIG_LOCATION_DELIMITERS));
+    String[] basePackages = StringUtils.tokenizeToStringArray(element.getAttribute("base-package"),
+        ConfigurableApplicationContext.CONFIG_LOCATION_DELIMITERS);
     GenericBeanDefinition def = new GenericBeanDefinition();
+    MutablePropertyValues prop = new MutablePropertyValues();
     def.setBeanClass(RouterFactory.class);
+    ClassLoader classLoader = parserContext.getReaderContext().getBeanClassLoader() != null
+        ? parserContext.getReaderContext().getBeanClassLoader()
+        : ClassUtils.getDefaultClassLoader();
+    RouterIndex routeIndex = null;
+    if (!"false".equals(element.getAttribute("route-index"))) {
+      routeIndex = RouterIndex.load(classLoader);
+    }
+    boolean scanUnindexed = "true".equals(element.getAttribute("scan-unindexed"));
+    if (routeIndex != null) {
+      // the handler methods and consumers were indexed at compile time, no need to scan
+      routeIndex = routeIndex.forPackages(basePackages);
+      // what a scan would have registered, for the autowiring of the indexed beans
+      AnnotationConfigUtils.registerAnnotationConfigProcessors(registry);
+      registerIndexed(routeIndex.getControllers(), true, registry, classLoader);
+      registerIndexed(routeIndex.getConsumers(), false, registry, classLoader);
+      prop.addPropertyValue("routeIndex", routeIndex);
+      if (scanUnindexed) {
+        // a build compiling part of the classes writes a partial index
+        scan(routeIndex, registry, basePackages);
+        prop.addPropertyValue("scanUnindexed", true);
+      }
+    } else {
+      scan(null, registry, basePackages);
+    }
+    GenericBeanDefinition consumersDef = new GenericBeanDefinition();
+    consumersDef.setBeanClass(ConsumerRegistrar.class);
+    if (element.hasAttribute("invoker")) {
+      consumersDef.getPropertyValues().addPropertyValue("invoker", enumValue(element.getAttribute("invoker")));
+    }
+    registry.registerBeanDefinition("vertx-spring-web-consumers", consumersDef);
+    if (element.hasAttribute("invoker")) {
+      prop.addPropertyValue("invoker", enumValue(element.getAttribute("invoker")));
+    }
+    if (element.hasAttribute("body-limit")) {
+      prop.addPropertyValue("bodyLimit", element.getAttribute("body-limit"));
+    }
+    if (element.hasAttribute("timeout")) {
+      prop.addPropertyValue("timeout", element.getAttribute("timeout"));
+    }
+    if (element.hasAttribute("uploads-directory")) {
+      prop.addPropertyValue("uploadsDirectory", element.getAttribute("uploads-directory"));
+    }
+    if (element.hasAttribute("object-mapper-ref")) {
+      RuntimeBeanReference objectMapper = new RuntimeBeanReference(element.getAttribute("object-mapper-ref"));
+      prop.addPropertyValue("objectMapper", objectMapper);
+      consumersDef.getPropertyValues().addPropertyValue("objectMapper", objectMapper);
+    }
+    if (!"false".equals(element.getAttribute("metrics"))) {
+      GenericBeanDefinition metricsDef = new GenericBeanDefinition();
+      metricsDef.setBeanClass(RouterMetrics.class);
+      registry.registerBeanDefinition("vertx-spring-web-router-metrics", metricsDef);
+      prop.addPropertyValue("metrics", new RuntimeBeanReference("vertx-spring-web-router-metrics"));
+      if (element.hasAttribute("metrics-path")) {
+        prop.addPropertyValue("metricsPath", element.getAttribute("metrics-path"));
+      }
+    }
+    def.setPropertyValues(prop);
     registry.registerBeanDefinition("vertx-spring-web-router", def);
     return def;
   }
 
+  /**
+   * Scans the packages for the routers and consumers missing from the index, all of them
+   * without one.
+   */
+  private static void scan(RouterIndex routeIndex, BeanDefinitionRegistry registry, String[] basePackages) {
+    Set<String> indexedControllers = routeIndex != null ? routeIndex.getControllers() : Collections.emptySet();
+    Set<String> indexedConsumers = routeIndex != null ? routeIndex.getConsumers() : Collections.emptySet();
+    ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(registry, false);
+    BeanDefinitionDefaults defaults = new BeanDefinitionDefaults();
+    defaults.setLazyInit(true);
+    scanner.setBeanDefinitionDefaults(defaults);
+    AnnotationTypeFilter routerFilter = new AnnotationTypeFilter(VertxRouter.class);
+    scanner.addIncludeFilter((reader, factory) ->
+        routerFilter.match(reader, factory) && !indexed(reader.getClassMetadata().getClassName(),
+            indexedControllers, routeIndex));
+    scanner.scan(basePackages);
+    // consumers are not asked for by anyone, their beans can not be lazy
+    ClassPathBeanDefinitionScanner consumerScanner = new ClassPathBeanDefinitionScanner(registry, false);
+    consumerScanner.addIncludeFilter((reader, factory) ->
+        reader.getAnnotationMetadata().hasAnnotatedMethods(VertxConsumer.class.getName())
+            && !indexed(reader.getClassMetadata().getClassName(), indexedConsumers, routeIndex));
+    consumerScanner.addExcludeFilter(routerFilter);
+    consumerScanner.scan(basePackages);
+  }
+
+  private static boolean indexed(String className, Set<String> indexed, RouterIndex routeIndex) {
+    if (indexed.contains(className)) {
+      return true;
+    }
+    if (routeIndex != null) {
+      logger.warn(className + " is missing from the route index " + RouterIndex.LOCATION
+          + ", recompile it");
+    }
+    return false;
+  }
+
+  private static void registerIndexed(Set<String> classNames, boolean lazy, BeanDefinitionRegistry registry,
+                                      ClassLoader classLoader) {
+    AnnotationBeanNameGenerator nameGenerator = new AnnotationBeanNameGenerator();
+    AnnotationScopeMetadataResolver scopeResolver = new AnnotationScopeMetadataResolver();
+    for (String className : classNames) {
+      // the same definition as a scanned class, with its scope, lazy, primary and name
+      AnnotatedGenericBeanDefinition classDef =
+          new AnnotatedGenericBeanDefinition(ClassUtils.resolveClassName(className, classLoader));
+      classDef.setLazyInit(lazy);
+      classDef.setScope(scopeResolver.resolveScopeMetadata(classDef).getScopeName());
+      AnnotationConfigUtils.processCommonDefinitionAnnotations(classDef);
+      String name = nameGenerator.generateBeanName(classDef, registry);
+      if (!registry.containsBeanDefinition(name)) {
+        registry.registerBeanDefinition(name, classDef);
+      }
+    }
+  }
+
+  private static String enumValue(String attribute) {
+    return attribute.toUpperCase(Locale.ENGLISH).replace('-', '_');
+  }
+
 }
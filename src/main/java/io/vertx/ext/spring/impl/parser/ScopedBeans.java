@@ -0,0 +1,55 @@
+package io.vertx.ext.spring.impl.parser;
+
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.CustomScopeConfigurer;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.w3c.dom.Element;
+
+import io.vertx.ext.spring.impl.EventLoopScope;
+
+/**
+ * Registers the client beans declaring a {@code scope}.
+ * <p>An {@code event-loop} bean is registered behind a scoped proxy under the requested
+ * name, so it can be injected anywhere and each call reaches the instance of the calling
+ * context.
+ */
+final class ScopedBeans {
+
+  private static final String SCOPE_CONFIGURER = "vertx-spring-event-loop-scope";
+
+  private static final String SCOPE = "vertx-spring-event-loop-scope-instances";
+
+  private ScopedBeans() {
+  }
+
+  static void register(Element element, String name, AbstractBeanDefinition def, BeanDefinitionRegistry registry) {
+    if (!EventLoopScope.NAME.equals(element.getAttribute("scope"))) {
+      registry.registerBeanDefinition(name, def);
+      return;
+    }
+    if (!registry.containsBeanDefinition(SCOPE_CONFIGURER)) {
+      // a bean of its own, so that it is destroyed with the context
+      GenericBeanDefinition scope = new GenericBeanDefinition();
+      scope.setBeanClass(EventLoopScope.class);
+      registry.registerBeanDefinition(SCOPE, scope);
+      GenericBeanDefinition configurer = new GenericBeanDefinition();
+      configurer.setBeanClass(CustomScopeConfigurer.class);
+      ManagedMap<String, Object> scopes = new ManagedMap<>();
+      scopes.put(EventLoopScope.NAME, new RuntimeBeanReference(SCOPE));
+      MutablePropertyValues prop = new MutablePropertyValues();
+      prop.addPropertyValue("scopes", scopes);
+      configurer.setPropertyValues(prop);
+      registry.registerBeanDefinition(SCOPE_CONFIGURER, configurer);
+    }
+    def.setScope(EventLoopScope.NAME);
+    BeanDefinitionHolder proxy = ScopedProxyUtils.createScopedProxy(new BeanDefinitionHolder(def, name), registry, false);
+    registry.registerBeanDefinition(name, proxy.getBeanDefinition());
+  }
+
+}
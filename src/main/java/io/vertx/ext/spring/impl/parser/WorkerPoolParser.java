@@ -0,0 +1,33 @@
+package io.vertx.ext.spring.impl.parser;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.xml.BeanDefinitionParser;
+import org.springframework.beans.factory.xml.ParserContext;
+import org.w3c.dom.Element;
+
+import io.vertx.ext.spring.impl.factory.WorkerPoolFactory;
+
+public class WorkerPoolParser implements BeanDefinitionParser {
+
+  @Override
+  public BeanDefinition parse(Element element, ParserContext parserContext) {
+    BeanDefinitionRegistry registry = parserContext.getRegistry();
+    GenericBeanDefinition def = new GenericBeanDefinition();
+    MutablePropertyValues prop = new MutablePropertyValues();
+    def.setBeanClass(WorkerPoolFactory.class);
+    String id = element.getAttribute("id");
+    if (element.hasAttribute("size")) {
+      prop.addPropertyValue("size", element.getAttribute("size"));
+    }
+    if (element.hasAttribute("max-queue")) {
+      prop.addPropertyValue("maxQueue", element.getAttribute("max-queue"));
+    }
+    def.setPropertyValues(prop);
+    registry.registerBeanDefinition(id, def);
+    return def;
+  }
+
+}
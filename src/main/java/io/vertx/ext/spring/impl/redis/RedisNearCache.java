@@ -0,0 +1,282 @@
+package io.vertx.ext.spring.impl.redis;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.spring.impl.BoundedCache;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A near cache in front of a redis client bean, answering {@code get} and {@code hgetall}
+ * from memory.
+ * <p>Entries are kept in a {@link BoundedCache}, the ttl bounding how long a change made
+ * behind the cache, or an expiry set on the server, goes unseen. A hit is answered on the
+ * context of the caller, but later, as a reply from the server would be.
+ * <p>The writes made through the bean drop the keys they touch, then publish them on the
+ * invalidation channel once done, so every other process using the same channel drops
+ * them as well. A read started before an invalidation does not store its reply.
+ * Transactions and scripts are not seen by the cache.
+ */
+public class RedisNearCache implements MethodInterceptor, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisNearCache.class);
+
+    private static final char SEPARATOR = '\u0000';
+
+    private static final String ALL = "*";
+
+    private static final Set<String> READS = new HashSet<>(Arrays.asList("get", "hgetall"));
+
+    private static final Set<String> KEY_WRITES = new HashSet<>(Arrays.asList(
+            "set", "setWithOptions", "setBinary", "setBinaryWithOptions", "setex", "psetex", "setnx",
+            "getset", "append", "setrange", "setbit", "incr", "incrby", "incrbyfloat", "decr", "decrby",
+            "del", "expire", "pexpire", "expireat", "pexpireat", "persist", "restore",
+            "hset", "hsetnx", "hmset", "hdel", "hdelMany", "hincrby", "hincrbyfloat"));
+
+    private static final Set<String> FLUSHES = new HashSet<>(Arrays.asList("flushall", "flushdb"));
+
+    private final String name;
+
+    private final String instance = UUID.randomUUID().toString();
+
+    private long ttlNanos = TimeUnit.SECONDS.toNanos(60);
+
+    private String channel = "vertx-spring.near-cache";
+
+    private volatile BoundedCache<String, Object> entries = new BoundedCache<>(10000, -1, null);
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private Vertx vertx;
+
+    private RedisClient subscriber;
+
+    private MessageConsumer<JsonObject> consumer;
+
+    public RedisNearCache(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.entries = new BoundedCache<>(maxEntries, -1, null);
+    }
+
+    public void setTtl(long ttl) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Subscribes to the invalidation channel with a connection of its own, once for all the
+     * clients sharing this cache.
+     */
+    public void start(Vertx vertx, RedisOptions options) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        this.vertx = vertx;
+        String address = "vertx-spring.near-cache." + name;
+        consumer = vertx.eventBus().consumer(address + "." + channel,
+                (message) -> received(message.body().getJsonObject("value").getString("message")));
+        subscriber = RedisClient.create(vertx, new RedisOptions(options).setAddress(address));
+        subscriber.subscribe(channel, (ar) -> {
+            if (ar.failed()) {
+                logger.warn("The near cache of " + name + " is not invalidated by other processes: "
+                        + ar.cause().getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (consumer != null) {
+            consumer.unregister();
+            subscriber.close((ar) -> {
+            });
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return entries.getEvictions();
+    }
+
+    public long getExpirations() {
+        return entries.getExpirations();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("name", name)
+                .put("size", size())
+                .put("hits", getHits())
+                .put("misses", getMisses())
+                .put("evictions", getEvictions())
+                .put("expirations", getExpirations())
+                .put("invalidations", getInvalidations());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        Object[] args = invocation.getArguments();
+        Handler<AsyncResult<Object>> handler = args.length > 0 && args[args.length - 1] instanceof Handler
+                ? (Handler<AsyncResult<Object>>) args[args.length - 1]
+                : null;
+        if (READS.contains(method) && args.length == 2 && handler != null) {
+            return read(method, (ProxyMethodInvocation) invocation, handler);
+        }
+        List<String> keys = writtenKeys(method, args);
+        if (keys == null) {
+            return invocation.proceed();
+        }
+        invalidate(keys);
+        RedisClient client = (RedisClient) ((ProxyMethodInvocation) invocation).getProxy();
+        args[args.length - 1] = (Handler<AsyncResult<Object>>) (ar) -> {
+            publish(client, keys);
+            if (handler != null) {
+                handler.handle(ar);
+            }
+        };
+        return invocation.proceed();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object read(String method, ProxyMethodInvocation invocation, Handler<AsyncResult<Object>> handler)
+            throws Throwable {
+        Object[] args = invocation.getArguments();
+        String key = method + SEPARATOR + args[0];
+        Object value = entries.get(key);
+        if (value != null) {
+            hits.increment();
+            Object hit = copy(value);
+            vertx.getOrCreateContext().runOnContext((v) -> handler.handle(Future.succeededFuture(hit)));
+            return invocation.getProxy();
+        }
+        misses.increment();
+        long seen = epoch.get();
+        args[1] = (Handler<AsyncResult<Object>>) (ar) -> {
+            if (ar.succeeded() && ar.result() != null && epoch.get() == seen) {
+                entries.put(key, copy(ar.result()), ttlNanos);
+            }
+            handler.handle(ar);
+        };
+        return invocation.proceed();
+    }
+
+    /**
+     * The keys changed by a write, {@code null} when the command does not write.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> writtenKeys(String method, Object[] args) {
+        if (KEY_WRITES.contains(method)) {
+            return Collections.singletonList((String) args[0]);
+        }
+        if (FLUSHES.contains(method)) {
+            return Collections.singletonList(ALL);
+        }
+        switch (method) {
+            case "rename":
+            case "renamenx":
+                return Arrays.asList((String) args[0], (String) args[1]);
+            case "delMany":
+                return new ArrayList<>((List<String>) args[0]);
+            case "mset":
+            case "msetnx":
+                return new ArrayList<>(((JsonObject) args[0]).fieldNames());
+            default:
+                return null;
+        }
+    }
+
+    private void publish(RedisClient client, List<String> keys) {
+        StringBuilder message = new StringBuilder(instance);
+        for (String key : keys) {
+            message.append(SEPARATOR).append(key);
+        }
+        client.publish(channel, message.toString(), (ar) -> {
+            if (ar.failed()) {
+                logger.warn("Invalidation of " + keys + " not published: " + ar.cause().getMessage());
+            }
+        });
+    }
+
+    private void received(String message) {
+        String[] parts = message.split(String.valueOf(SEPARATOR));
+        if (parts[0].equals(instance)) {
+            return;
+        }
+        invalidate(Arrays.asList(parts).subList(1, parts.length));
+    }
+
+    private void invalidate(List<String> keys) {
+        epoch.incrementAndGet();
+        for (String key : keys) {
+            invalidations.increment();
+            if (ALL.equals(key)) {
+                entries.clear();
+                continue;
+            }
+            for (String method : READS) {
+                entries.remove(method + SEPARATOR + key);
+            }
+        }
+    }
+
+    private static Object copy(Object value) {
+        return value instanceof JsonObject ? ((JsonObject) value).copy() : value;
+    }
+}
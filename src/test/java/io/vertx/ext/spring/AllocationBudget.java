@@ -0,0 +1,162 @@
+package io.vertx.ext.spring;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends a fixed mix of requests through a router and measures the bytes the event loop
+ * allocates for each of them, from the request handler to the end of the response, with
+ * {@code ThreadMXBean.getThreadAllocatedBytes}.
+ * <p>Requests are sent one at a time, warmed up first, and a route is reported with the
+ * median of its samples, so a GC or a timer running on the event loop does not fail the
+ * budget. A first route is added to the router to see the end of the responses, and only
+ * handlers ending the response on the event loop can be measured.
+ */
+public class AllocationBudget {
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Vertx vertx;
+
+    private final Router router;
+
+    private final List<Request> requests = new ArrayList<>();
+
+    public AllocationBudget(Vertx vertx, Router router) {
+        this.vertx = vertx;
+        this.router = router;
+    }
+
+    public AllocationBudget route(HttpMethod method, String uri, long budget) {
+        return route(method, uri, null, budget);
+    }
+
+    public AllocationBudget route(HttpMethod method, String uri, String body, long budget) {
+        requests.add(new Request(method, uri, body, budget));
+        return this;
+    }
+
+    /**
+     * Measures every request, failing with the requests over their budget.
+     */
+    public void check(int port, int warmup, int samples, Handler<AsyncResult<Map<String, Long>>> handler) {
+        AtomicLong started = new AtomicLong();
+        AtomicLong allocated = new AtomicLong();
+        // a body end handler, the single end handler of the response belongs to the route
+        router.route().order(-1).handler((context) -> {
+            long thread = Thread.currentThread().getId();
+            context.addBodyEndHandler((v) -> allocated.set(threads.getThreadAllocatedBytes(thread) - started.get()));
+            context.next();
+        });
+        HttpServer server = vertx.createHttpServer().requestHandler((request) -> {
+            started.set(threads.getThreadAllocatedBytes(Thread.currentThread().getId()));
+            router.accept(request);
+        });
+        server.listen(port, "127.0.0.1", (listening) -> {
+            if (listening.failed()) {
+                handler.handle(Future.failedFuture(listening.cause()));
+                return;
+            }
+            HttpClient client = vertx.createHttpClient();
+            Map<String, Long> medians = new LinkedHashMap<>();
+            measure(client, port, requests.iterator(), warmup, samples, allocated, medians, (done) -> {
+                client.close();
+                server.close();
+                if (done.failed()) {
+                    handler.handle(Future.failedFuture(done.cause()));
+                    return;
+                }
+                StringBuilder over = new StringBuilder();
+                for (Request request : requests) {
+                    long median = medians.get(request.toString());
+                    if (median > request.budget) {
+                        over.append(request).append(" allocates ").append(median)
+                                .append(" bytes, over its budget of ").append(request.budget).append(". ");
+                    }
+                }
+                handler.handle(over.length() > 0
+                        ? Future.failedFuture(over.toString().trim())
+                        : Future.succeededFuture(medians));
+            });
+        });
+    }
+
+    private void measure(HttpClient client, int port, Iterator<Request> remaining, int warmup, int samples,
+                         AtomicLong allocated, Map<String, Long> medians, Handler<AsyncResult<Void>> handler) {
+        if (!remaining.hasNext()) {
+            handler.handle(Future.succeededFuture());
+            return;
+        }
+        Request request = remaining.next();
+        long[] measured = new long[samples];
+        send(client, port, request, warmup + samples, 0, (count) -> {
+            if (count >= warmup) {
+                measured[count - warmup] = allocated.get();
+            }
+        }, (done) -> {
+            if (done.failed()) {
+                handler.handle(done);
+                return;
+            }
+            Arrays.sort(measured);
+            medians.put(request.toString(), measured[samples / 2]);
+            measure(client, port, remaining, warmup, samples, allocated, medians, handler);
+        });
+    }
+
+    private void send(HttpClient client, int port, Request request, int total, int count,
+                      Handler<Integer> sampler, Handler<AsyncResult<Void>> handler) {
+        if (count == total) {
+            handler.handle(Future.succeededFuture());
+            return;
+        }
+        client.request(request.method, port, "127.0.0.1", request.uri, (response) -> response.bodyHandler((body) -> {
+            if (response.statusCode() != 200) {
+                handler.handle(Future.failedFuture(request + " failed with status " + response.statusCode()));
+                return;
+            }
+            sampler.handle(count);
+            send(client, port, request, total, count + 1, sampler, handler);
+        })).end(request.body != null ? Buffer.buffer(request.body) : Buffer.buffer());
+    }
+
+    private static class Request {
+
+        final HttpMethod method;
+
+        final String uri;
+
+        final String body;
+
+        final long budget;
+
+        Request(HttpMethod method, String uri, String body, long budget) {
+            this.method = method;
+            this.uri = uri;
+            this.body = body;
+            this.budget = budget;
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + uri;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.vertx.ext.spring;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetSocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Just enough of a redis server for the tests: GET, SET, DEL, PUBLISH and SUBSCRIBE.
+ */
+public class RedisStandIn {
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<NetSocket>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger gets = new AtomicInteger();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final NetServer server;
+
+    public RedisStandIn(Vertx vertx) {
+        server = vertx.createNetServer().connectHandler(this::connected);
+    }
+
+    public void listen(int port, Handler<AsyncResult<NetServer>> handler) {
+        server.listen(port, "127.0.0.1", handler);
+    }
+
+    public void close() {
+        server.close();
+    }
+
+    public int gets() {
+        return gets.get();
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    public boolean subscribed(String channel) {
+        return subscribers.containsKey(channel);
+    }
+
+    private void connected(NetSocket socket) {
+        connections.incrementAndGet();
+        Buffer[] pending = {Buffer.buffer()};
+        socket.handler((data) -> {
+            pending[0].appendBuffer(data);
+            int start = 0;
+            List<String> command = new ArrayList<>();
+            int end;
+            while ((end = parse(pending[0], start, command)) > 0) {
+                execute(socket, command);
+                command.clear();
+                start = end;
+            }
+            pending[0] = pending[0].getBuffer(start, pending[0].length());
+        });
+        socket.closeHandler((v) -> {
+            connections.decrementAndGet();
+            subscribers.values().forEach((sockets) -> sockets.remove(socket));
+        });
+    }
+
+    private void execute(NetSocket socket, List<String> command) {
+        switch (command.get(0).toUpperCase()) {
+            case "GET":
+                gets.incrementAndGet();
+                socket.write(bulk(values.get(command.get(1))));
+                break;
+            case "SET":
+                values.put(command.get(1), command.get(2));
+                socket.write("+OK\r\n");
+                break;
+            case "DEL":
+                socket.write(":" + (values.remove(command.get(1)) != null ? 1 : 0) + "\r\n");
+                break;
+            case "PUBLISH":
+                Set<NetSocket> sockets = subscribers.getOrDefault(command.get(1), new CopyOnWriteArraySet<>());
+                for (NetSocket subscriber : sockets) {
+                    subscriber.write(Buffer.buffer("*3\r\n").appendBuffer(bulk("message"))
+                            .appendBuffer(bulk(command.get(1))).appendBuffer(bulk(command.get(2))));
+                }
+                socket.write(":" + sockets.size() + "\r\n");
+                break;
+            case "SUBSCRIBE":
+                subscribers.computeIfAbsent(command.get(1), (channel) -> new CopyOnWriteArraySet<>()).add(socket);
+                socket.write(Buffer.buffer("*3\r\n").appendBuffer(bulk("subscribe"))
+                        .appendBuffer(bulk(command.get(1))).appendString(":1\r\n"));
+                break;
+            default:
+                socket.write("-ERR unknown command '" + command.get(0) + "'\r\n");
+        }
+    }
+
+    private static Buffer bulk(String value) {
+        if (value == null) {
+            return Buffer.buffer("$-1\r\n");
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return Buffer.buffer("$" + bytes.length + "\r\n").appendBytes(bytes).appendString("\r\n");
+    }
+
+    /**
+     * Reads the command starting at {@code start}, returning where it ends or -1 when it is not
+     * all there yet.
+     */
+    private static int parse(Buffer buffer, int start, List<String> command) {
+        int lineEnd = lineEnd(buffer, start);
+        if (lineEnd < 0) {
+            return -1;
+        }
+        int count = Integer.parseInt(buffer.getString(start + 1, lineEnd));
+        int position = lineEnd + 2;
+        for (int i = 0; i < count; i++) {
+            lineEnd = lineEnd(buffer, position);
+            if (lineEnd < 0) {
+                return -1;
+            }
+            int length = Integer.parseInt(buffer.getString(position + 1, lineEnd));
+            position = lineEnd + 2;
+            if (position + length + 2 > buffer.length()) {
+                return -1;
+            }
+            command.add(buffer.getString(position, position + length, "UTF-8"));
+            position += length + 2;
+        }
+        return position;
+    }
+
+    private static int lineEnd(Buffer buffer, int from) {
+        for (int i = from; i < buffer.length() - 1; i++) {
+            if (buffer.getByte(i) == '\r' && buffer.getByte(i + 1) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -2,22 +2,85 @@ package io.vertx.ext.spring;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.Test;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.scope.ScopedObject;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.net.NetClient;
+import io.vertx.ext.spring.annotation.ConsumerHeader;
+import io.vertx.ext.spring.annotation.VertxConsumer;
+import io.vertx.ext.spring.impl.BoundedCache;
+import io.vertx.ext.spring.impl.VertxHolder;
+import io.vertx.ext.jdbc.JDBCClient;
+import io.vertx.ext.spring.annotation.RouterHandler;
+import io.vertx.ext.spring.impl.eventbus.LocalCodec;
+import io.vertx.ext.spring.impl.handler.HandlerInvoker;
+import io.vertx.ext.spring.impl.handler.HandlerInvokers;
+import io.vertx.ext.spring.impl.handler.RequestBodyHandler;
+import io.vertx.ext.spring.impl.index.RouterIndexProcessor;
+import io.vertx.ext.spring.impl.jdbc.PooledDataSource;
+import io.vertx.ext.spring.impl.metrics.HttpClientPoolMetrics;
+import io.vertx.ext.spring.impl.redis.RedisNearCache;
+import io.vertx.ext.web.Router;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
 import io.vertx.test.core.AsyncTestBase;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
 
 public class SimpleTest extends AsyncTestBase {
 
@@ -53,6 +116,195 @@ public class SimpleTest extends AsyncTestBase {
         await();
     }
 
+    @Test
+    public void testSharedContext() {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+        AtomicInteger contexts = new AtomicInteger();
+        AtomicReference<ConfigurableApplicationContext> created = new AtomicReference<>();
+
+        VertxSpring.deploy(vertx,
+                () -> {
+                    contexts.incrementAndGet();
+                    created.set(new ClassPathXmlApplicationContext("test-context.xml"));
+                    return created.get();
+                },
+                new HttpServerOptions()
+                        .setPort(8081),
+                3,
+                (deployRes) -> {
+                    assertTrue(deployRes.succeeded());
+                    assertEquals(1, contexts.get());
+                    assertEquals(3, ((VertxInternal) vertx).getDeployment(deployRes.result()).getVerticles().size());
+                    client.getNow(8081, "127.0.0.1", "/testConvert/GET?ids=1,2", (response) -> {
+                        assertEquals(200, response.statusCode());
+                        assertTrue(created.get().isActive());
+                        vertx.undeploy(deployRes.result(), (undeployRes) -> {
+                            // closed with the last instance
+                            assertFalse(created.get().isActive());
+                            testFailedDeployment();
+                        });
+                    });
+                });
+        await();
+    }
+
+    @Test
+    public void testMountedRouter() {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+        VertxHolder.set(vertx);
+        ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext("test-context.xml");
+        Router parent = Router.router(vertx);
+        parent.mountSubRouter("/api", applicationContext.getBean(Router.class));
+
+        vertx.createHttpServer().requestHandler(parent::accept).listen(8086, onSuccess((server) ->
+                client.getNow(8086, "127.0.0.1", "/api/testConvert/GET?ids=1,2", (response) -> {
+                    assertEquals(200, response.statusCode());
+                    client.getNow(8086, "127.0.0.1", "/testConvert/GET?ids=1,2", (unmounted) -> {
+                        assertEquals(404, unmounted.statusCode());
+                        applicationContext.close();
+                        testComplete();
+                    });
+                })));
+        await();
+    }
+
+    @Test
+    public void testEndHandler() {
+        // a handler setting the end handler of its response keeps it, and the route is still measured
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+        VertxHolder.set(vertx);
+        ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext("test-context.xml");
+        Router router = applicationContext.getBean(Router.class);
+
+        vertx.createHttpServer().requestHandler(router::accept).listen(8088, onSuccess((server) ->
+                client.getNow(8088, "127.0.0.1", "/testEndHandler?key=end", (response) -> response.bodyHandler((body) -> {
+                    assertEquals(200, response.statusCode());
+                    client.getNow(8088, "127.0.0.1", "/test?key=end", (ended) -> ended.bodyHandler((value) -> {
+                        assertEquals("ended", value.toString());
+                        client.getNow(8088, "127.0.0.1", "/metrics", (metrics) -> metrics.bodyHandler((buff) -> {
+                            JsonObject route = new JsonObject(decodePlain(buff, new TypeReference<Map<String, Object>>() {}))
+                                    .getJsonArray("routes").stream()
+                                    .map(JsonObject.class::cast)
+                                    .filter((json) -> "/testEndHandler".equals(json.getString("path")))
+                                    .findFirst().orElseThrow(AssertionError::new);
+                            assertEquals(1L, (long) route.getLong("requests"));
+                            assertEquals(0L, (long) route.getLong("inFlight"));
+                            assertEquals(1L, (long) route.getJsonObject("executionTime").getLong("count"));
+                            applicationContext.close();
+                            testComplete();
+                        }));
+                    }));
+                }))));
+        await();
+    }
+
+    private void testFailedDeployment() {
+        // the port is taken, the context built for the deployment is closed
+        ServerSocket taken;
+        try {
+            taken = new ServerSocket(8087, 50, InetAddress.getByName("0.0.0.0"));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        AtomicReference<ConfigurableApplicationContext> created = new AtomicReference<>();
+        VertxSpring.deploy(vertx,
+                () -> {
+                    created.set(new ClassPathXmlApplicationContext("test-context.xml"));
+                    return created.get();
+                },
+                new HttpServerOptions().setPort(8087),
+                2,
+                (deployRes) -> {
+                    assertTrue(deployRes.failed());
+                    assertFalse(created.get().isActive());
+                    try {
+                        taken.close();
+                    } catch (IOException ignored) {
+                        // the test is over
+                    }
+                    testComplete();
+                });
+    }
+
+    @Test
+    public void testDeclaredServer() {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+
+        VertxSpring.deploy(vertx, "test-context.xml", (deployRes) -> {
+            assertTrue(deployRes.succeeded());
+            client.get(8082, "127.0.0.1", "/testExport?count=1000", (response) -> {
+                assertEquals(200, response.statusCode());
+                assertEquals("gzip", response.getHeader("Content-Encoding"));
+                vertx.undeploy(deployRes.result(), (undeployRes) -> testComplete());
+            }).putHeader("Accept-Encoding", "gzip").end();
+        });
+        await();
+    }
+
+    @Test
+    public void testClientPoolMetrics() {
+        vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(VertxSpring.metricsOptions()));
+        AtomicReference<ApplicationContext> context = new AtomicReference<>();
+
+        VertxSpring.deploy(vertx,
+                () -> {
+                    context.set(new ClassPathXmlApplicationContext("test-context.xml"));
+                    return context.get();
+                },
+                new HttpServerOptions()
+                        .setPort(8083),
+                (deployRes) -> {
+                    assertTrue(deployRes.succeeded());
+                    HttpClient httpClient = context.get().getBean("httpClient", HttpClient.class);
+                    HttpClientPoolMetrics metrics = context.get().getBean("httpClientMetrics", HttpClientPoolMetrics.class);
+                    httpClient.getNow(8083, "127.0.0.1", "/testConvert/GET?ids=1", (response) -> response.endHandler((v) -> {
+                        assertEquals(1, metrics.getRequests());
+                        assertEquals(1, metrics.getAcquireTime().getCount());
+                        assertEquals(1, metrics.getConnections());
+                        assertEquals(0, metrics.getWaiting());
+                        vertx.undeploy(deployRes.result(), (undeployRes) -> testComplete());
+                    }));
+                });
+        await();
+    }
+
+    @Test
+    public void testEventLoopScope() {
+        vertx = Vertx.vertx();
+        VertxHolder.set(vertx);
+        ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext("test-context.xml");
+        HttpClient proxy = applicationContext.getBean("httpClient", HttpClient.class);
+        TargetSource redis = ((Advised) applicationContext.getBean("testRedis")).getTargetSource();
+        Context first = vertx.getOrCreateContext();
+        Context second = vertx.getOrCreateContext();
+
+        first.runOnContext((v) -> {
+            Object firstClient = ((ScopedObject) proxy).getTargetObject();
+            assertSame(firstClient, ((ScopedObject) proxy).getTargetObject());
+            Object firstRedis = getTarget(redis);
+            assertSame(firstRedis, getTarget(redis));
+            second.runOnContext((v2) -> {
+                assertNotSame(firstClient, ((ScopedObject) proxy).getTargetObject());
+                assertNotSame(firstRedis, getTarget(redis));
+                // the instances of every context are closed with the application context
+                applicationContext.close();
+                try {
+                    ((HttpClient) firstClient).getNow("/", (response) -> {
+                    });
+                    fail("The client of the first context is still open");
+                } catch (IllegalStateException expected) {
+                    // closed
+                }
+                testComplete();
+            });
+        });
+        await();
+    }
+
     private void testAll(Handler<AsyncResult<Void>> handler) throws JsonProcessingException {
         TestJsonObject obj = new TestJsonObject();
         obj.setId(2L);
@@ -73,7 +325,20 @@ public class SimpleTest extends AsyncTestBase {
             testPut("a", "1", (ar) ->
                     testGet("a", "1", (a) -> {
 
-                        testPathGet("a", "1", handler);
+                        testPathGet("a", "1", (p) ->
+                                testStream((st) ->
+                                        testBodyLimit((l) ->
+                                                testAsync((as) ->
+                                                        testPostList((pl) ->
+                                                                testConvert((cv) ->
+                                                                        testWorkerPool((wp) ->
+                                                                                testMetrics((m) ->
+                                                                                        testCache((c) ->
+                                                                                                testExport((e) ->
+                                                                                                        testRows((r) ->
+                                                                                                                testLimits((li) ->
+                                                                                                                        testTimeouts((ti) ->
+                                                                                                                                testConsumers(handler))))))))))))));
                     })
             );
         });
@@ -131,6 +396,737 @@ public class SimpleTest extends AsyncTestBase {
         });
     }
 
+    private void testStream(Handler<AsyncResult<Void>> handler) {
+        TestJsonObject first = new TestJsonObject();
+        first.setName("first");
+        TestJsonObject second = new TestJsonObject();
+        second.setName("second");
+
+        client.post(8080, "127.0.0.1", "/testStream", (response) -> {
+            assertEquals(200, response.statusCode());
+            response.bodyHandler((buff) -> {
+                assertEquals("firstsecond", buff.toString());
+                handler.handle(Future.succeededFuture());
+            });
+        }).setChunked(true)
+                .write(Json.encode(first) + "\n")
+                .end(Json.encode(second) + "\n");
+    }
+
+    private void testBodyLimit(Handler<AsyncResult<Void>> handler) {
+        client.post(8080, "127.0.0.1", "/testLimit", (response) -> {
+            assertEquals(413, response.statusCode());
+            testDefaultBodyLimit(handler);
+        }).end("this body is longer than sixteen bytes");
+    }
+
+    private void testDefaultBodyLimit(Handler<AsyncResult<Void>> handler) {
+        // a route without a limit still does not take a body of any size on the heap
+        NetClient limited = vertx.createNetClient();
+        limited.connect(8080, "127.0.0.1", onSuccess((socket) -> {
+            socket.handler((head) -> {
+                assertTrue(head.toString(), head.toString().startsWith("HTTP/1.1 413"));
+                socket.handler(null);
+                limited.close();
+                handler.handle(Future.succeededFuture());
+            });
+            socket.write("POST /testList HTTP/1.1\r\nHost: 127.0.0.1\r\nContent-Type: application/json\r\n"
+                    + "Content-Length: " + (RequestBodyHandler.DEFAULT_BUFFERED_LIMIT + 1) + "\r\n\r\n[");
+        }));
+    }
+
+    private void testAsync(Handler<AsyncResult<Void>> handler) {
+        client.getNow(8080, "127.0.0.1", "/testFuture?key=a", (response) -> {
+            assertEquals(200, response.statusCode());
+            response.bodyHandler((buff) -> {
+                assertEquals("1", buff.toString());
+
+                client.getNow(8080, "127.0.0.1", "/testCompletionStage?name=async", (stageResponse) -> {
+                    assertEquals(200, stageResponse.statusCode());
+                    stageResponse.bodyHandler((stageBuff) -> {
+                        assertEquals("async", Json.decodeValue(stageBuff, TestJsonObject.class).getName());
+
+                        client.getNow(8080, "127.0.0.1", "/testFailedFuture", (failedResponse) -> {
+                            assertEquals(500, failedResponse.statusCode());
+                            assertEquals("failed on purpose", failedResponse.statusMessage());
+                            handler.handle(Future.succeededFuture());
+                        });
+                    });
+                });
+            });
+        });
+    }
+
+    private void testPostList(Handler<AsyncResult<Void>> handler) {
+        TestJsonObject first = new TestJsonObject();
+        first.setName("first");
+        TestJsonObject last = new TestJsonObject();
+        last.setName("last");
+
+        client.post(8080, "127.0.0.1", "/testList", (response) -> {
+            assertEquals(200, response.statusCode());
+            response.bodyHandler((buff) -> {
+                assertEquals("last", buff.toString());
+                handler.handle(Future.succeededFuture());
+            });
+        }).end(Json.encodeToBuffer(Arrays.asList(first, last)));
+    }
+
+    private void testConvert(Handler<AsyncResult<Void>> handler) {
+        client.getNow(8080, "127.0.0.1", "/testConvert/DELETE?ids=1&ids=2&ids=3&flag=yes", (response) -> {
+            assertEquals(200, response.statusCode());
+            response.bodyHandler((buff) -> {
+                assertEquals("DELETE:6:true", buff.toString());
+
+                client.getNow(8080, "127.0.0.1", "/testConvert/GET?ids=4,5", (splitResponse) -> {
+                    assertEquals(200, splitResponse.statusCode());
+                    splitResponse.bodyHandler((splitBuff) -> {
+                        assertEquals("GET:9:false", splitBuff.toString());
+
+                        client.getNow(8080, "127.0.0.1", "/testConvert/GET?ids=x", (badResponse) -> {
+                            assertEquals(500, badResponse.statusCode());
+                            handler.handle(Future.succeededFuture());
+                        });
+                    });
+                });
+            });
+        });
+    }
+
+    private void testWorkerPool(Handler<AsyncResult<Void>> handler) {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        TestRouter.poolEntered = entered;
+        TestRouter.poolReleased = released;
+        client.getNow(8080, "127.0.0.1", "/testPool", (response) -> {
+            assertEquals(200, response.statusCode());
+            response.bodyHandler((buff) -> {
+                assertTrue(buff.toString().startsWith("testPool"));
+                handler.handle(Future.succeededFuture());
+            });
+        });
+        // the single thread of the pool is busy and it has no queue
+        vertx.setPeriodic(10, (t) -> {
+            if (entered.getCount() > 0) {
+                return;
+            }
+            vertx.cancelTimer(t);
+            client.getNow(8080, "127.0.0.1", "/testPool", (response) -> {
+                assertEquals(503, response.statusCode());
+                released.countDown();
+            });
+        });
+    }
+
+    private void testMetrics(Handler<AsyncResult<Void>> handler) {
+        client.getNow(8080, "127.0.0.1", "/metrics", (response) -> {
+            assertEquals(200, response.statusCode());
+            response.bodyHandler((buff) -> {
+                // Json.mapper has default typing enabled by now
+                JsonObject metrics = new JsonObject(decodePlain(buff, new TypeReference<Map<String, Object>>() {}));
+                Map<String, JsonObject> routes = new HashMap<>();
+                metrics.getJsonArray("routes").forEach((route) ->
+                        routes.put(((JsonObject) route).getString("method") + " " + ((JsonObject) route).getString("path"),
+                                (JsonObject) route));
+
+                JsonObject convert = routes.get("GET /testConvert/:method");
+                assertEquals(3L, (long) convert.getLong("requests"));
+                assertEquals(1L, (long) convert.getLong("errors"));
+                assertEquals(0L, (long) convert.getLong("inFlight"));
+                assertEquals(3L, (long) convert.getJsonObject("executionTime").getLong("count"));
+
+                JsonObject pool = routes.get("GET /testPool");
+                assertEquals(2L, (long) pool.getLong("requests"));
+                assertEquals(1L, (long) pool.getLong("errors"));
+                assertTrue(pool.getJsonObject("executionTime").getLong("max") >= 500_000);
+                assertEquals(1L, (long) pool.getJsonObject("queueTime").getLong("count"));
+                handler.handle(Future.succeededFuture());
+            });
+        });
+    }
+
+    private void testCache(Handler<AsyncResult<Void>> handler) {
+        client.getNow(8080, "127.0.0.1", "/testCache/a?lang=en", (first) -> first.bodyHandler((firstBody) -> {
+            String etag = first.getHeader("ETag");
+            assertNotNull(etag);
+
+            client.getNow(8080, "127.0.0.1", "/testCache/a?lang=en", (second) -> second.bodyHandler((secondBody) -> {
+                // served from the cache, the handler was not called again
+                assertEquals(firstBody, secondBody);
+                assertEquals(etag, second.getHeader("ETag"));
+
+                client.get(8080, "127.0.0.1", "/testCache/a?lang=en", (notModified) -> {
+                    assertEquals(304, notModified.statusCode());
+
+                    client.getNow(8080, "127.0.0.1", "/testCache/a?lang=fr", (other) -> other.bodyHandler((otherBody) -> {
+                        assertFalse(firstBody.equals(otherBody));
+                        assertEquals("a/fr", Json.decodeValue(otherBody, TestJsonObject.class).getName());
+                        testPlainCache(handler);
+                    }));
+                }).putHeader("If-None-Match", etag).end();
+            }));
+        }));
+    }
+
+    private void testPlainCache(Handler<AsyncResult<Void>> handler) {
+        // with no key listed, the path still tells the responses apart
+        client.getNow(8080, "127.0.0.1", "/testCache/plain/a", (a) -> a.bodyHandler((aBody) -> {
+            assertEquals("a", aBody.toString());
+            client.getNow(8080, "127.0.0.1", "/testCache/plain/b", (b) -> b.bodyHandler((bBody) -> {
+                assertEquals("b", bBody.toString());
+                handler.handle(Future.succeededFuture());
+            }));
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void testExport(Handler<AsyncResult<Void>> handler) {
+        // well past the write queue of the connection, so the export has to wait for it to drain
+        client.getNow(8080, "127.0.0.1", "/testExport?count=100000", (resp) -> resp.bodyHandler((buff) -> {
+            assertEquals("application/json", resp.getHeader("Content-Type"));
+            JsonArray ids = new JsonArray(decodePlain(buff, List.class));
+            assertEquals(100000, ids.size());
+            assertEquals(99999L, ids.getLong(99999).longValue());
+
+            client.get(8080, "127.0.0.1", "/testExport?count=3", (ndjson) -> ndjson.bodyHandler((lines) -> {
+                assertEquals("application/x-ndjson", ndjson.getHeader("Content-Type"));
+                assertEquals("0\n1\n2\n", lines.toString());
+
+                client.getNow(8080, "127.0.0.1", "/testExport?count=0", (empty) -> empty.bodyHandler((none) -> {
+                    assertEquals("[]", none.toString());
+                    testWorkerExport(handler);
+                }));
+            })).putHeader("Accept", "application/x-ndjson").end();
+        }));
+    }
+
+    private void testWorkerExport(Handler<AsyncResult<Void>> handler) {
+        // a blocking iterator goes on on the worker once the response drained
+        client.getNow(8080, "127.0.0.1", "/testWorkerExport?count=100000", (resp) -> resp.bodyHandler((buff) -> {
+            assertEquals(100000, new JsonArray(decodePlain(buff, List.class)).size());
+            client.getNow(8080, "127.0.0.1", "/testWorkerExport/eventLoop", (check) -> check.bodyHandler((onEventLoop) -> {
+                assertEquals("false", onEventLoop.toString());
+                handler.handle(Future.succeededFuture());
+            }));
+        }));
+    }
+
+    @Test
+    public void testAllocationBudget() {
+        vertx = Vertx.vertx();
+        VertxHolder.set(vertx);
+        ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext("test-context.xml");
+        Router router = applicationContext.getBean(Router.class);
+
+        // bytes allocated on the event loop per request, about 1.5 times what they take today
+        new AllocationBudget(vertx, router)
+                .route(HttpMethod.PUT, "/test?key=budget&value=1", 6000)
+                .route(HttpMethod.GET, "/test?key=budget", 4500)
+                .route(HttpMethod.GET, "/test/budget", 3500)
+                .route(HttpMethod.GET, "/testConvert/GET?ids=1,2&flag=yes", 6000)
+                .route(HttpMethod.POST, "/testLimit", "budget", 5500)
+                .check(8085, 1000, 201, onSuccess((allocated) -> {
+                    assertEquals(5, allocated.size());
+                    applicationContext.close();
+                    testComplete();
+                }));
+        await();
+    }
+
+    @Test
+    public void testHandlerInvokers() throws Throwable {
+        for (HandlerInvoker.Mode mode : HandlerInvoker.Mode.values()) {
+            Invoked target = new Invoked();
+            // primitives are boxed and unboxed by the spreader, void returns null
+            HandlerInvoker add = HandlerInvokers.create(target,
+                    Invoked.class.getMethod("add", int.class, long.class), mode);
+            assertEquals(5L, add.invoke(new Object[]{2, 3L}));
+            HandlerInvoker record = HandlerInvokers.create(target,
+                    Invoked.class.getMethod("record", String.class), mode);
+            assertNull(record.invoke(new Object[]{"recorded"}));
+            assertEquals("recorded", target.recorded);
+
+            // thrown as they are, never wrapped
+            HandlerInvoker fail = HandlerInvokers.create(target,
+                    Invoked.class.getMethod("fail", String.class), mode);
+            try {
+                fail.invoke(new Object[]{"failed on purpose"});
+                fail("the handler threw");
+            } catch (IOException e) {
+                assertEquals("failed on purpose", e.getMessage());
+            }
+        }
+
+        // invoker="reflection" reaches both the routes and the consumers
+        DefaultListableBeanFactory beanFactory =
+                routerDefinitions(" base-package=\"io.vertx.ext.spring.none\" invoker=\"reflection\"");
+        assertEquals(HandlerInvoker.Mode.REFLECTION.name(), beanFactory.getBeanDefinition("vertx-spring-web-router")
+                .getPropertyValues().getPropertyValue("invoker").getValue());
+        assertEquals(HandlerInvoker.Mode.REFLECTION.name(), beanFactory.getBeanDefinition("vertx-spring-web-consumers")
+                .getPropertyValues().getPropertyValue("invoker").getValue());
+    }
+
+    @Test
+    public void testRouteIndexOnly() {
+        // with an index, the indexed classes are registered and nothing is scanned
+        DefaultListableBeanFactory indexed = routerDefinitions(" base-package=\"io.vertx.ext.spring\"");
+        assertTrue(indexed.containsBeanDefinition("testRouter"));
+        assertTrue(indexed.containsBeanDefinition("simpleTest.Renamer"));
+        assertNull(indexed.getBeanDefinition("vertx-spring-web-router").getPropertyValues()
+                .getPropertyValue("scanUnindexed"));
+        DefaultListableBeanFactory scanned = routerDefinitions(" base-package=\"io.vertx.ext.spring\" scan-unindexed=\"true\"");
+        assertTrue(scanned.containsBeanDefinition("testRouter"));
+        assertEquals(true, scanned.getBeanDefinition("vertx-spring-web-router").getPropertyValues()
+                .getPropertyValue("scanUnindexed").getValue());
+    }
+
+    private static DefaultListableBeanFactory routerDefinitions(String attributes) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(new ByteArrayResource((
+                "<beans xmlns=\"http://www.springframework.org/schema/beans\"\n"
+                        + "       xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+                        + "       xmlns:vertx=\"http://www.vertx.io/schema/vertx-spring-web\"\n"
+                        + "       xsi:schemaLocation=\"http://www.springframework.org/schema/beans\n"
+                        + "       http://www.springframework.org/schema/beans/spring-beans-4.0.xsd\n"
+                        + "       http://www.vertx.io/schema/vertx-spring-web\n"
+                        + "       http://www.vertx.io/schema/vertx-spring-web.xsd\">\n"
+                        + "    <vertx:router" + attributes + "/>\n"
+                        + "</beans>").getBytes(StandardCharsets.UTF_8)));
+        return beanFactory;
+    }
+
+    public static class Invoked {
+
+        String recorded;
+
+        public long add(int a, long b) {
+            return a + b;
+        }
+
+        public void record(String value) {
+            recorded = value;
+        }
+
+        public String fail(String message) throws IOException {
+            throw new IOException(message);
+        }
+    }
+
+    @Test
+    public void testBoundedCache() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<>(3, 6, String::length);
+        long ttl = TimeUnit.MINUTES.toNanos(1);
+        cache.put("a", "1", ttl);
+        cache.put("b", "22", ttl);
+        cache.put("c", "333", ttl);
+        assertEquals(6, cache.weight());
+
+        // too heavy, the eldest goes
+        cache.put("d", "4", ttl);
+        assertNull(cache.get("a"));
+        assertEquals("22", cache.get("b"));
+        assertEquals(1, cache.getEvictions());
+
+        // a removed entry leaves the insertion order, the next eviction takes the next one
+        assertTrue(cache.remove("c"));
+        cache.put("e", "5", ttl);
+        cache.put("f", "6", ttl);
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.weight());
+
+        cache.put("g", "7", 0);
+        Thread.sleep(1);
+        assertNull(cache.get("g"));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testConsumerBodies() {
+        vertx = Vertx.vertx();
+        VertxHolder.set(vertx);
+        ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext("test-consumer-context.xml");
+        // bodies sent as JSON are decoded to the parameter type, with the mapper of the routes
+        DeliveryOptions options = new DeliveryOptions().addHeader("name", "renamed");
+        vertx.eventBus().<TestJsonObject>send("test.bodies", new JsonObject().put("name", "object"), options,
+                onSuccess((object) -> {
+                    assertEquals("renamed", object.body().getName());
+                    vertx.eventBus().<TestJsonObject>send("test.bodies", Buffer.buffer("{\"name\":\"buffer\"}"), options,
+                            onSuccess((buffer) -> {
+                                assertEquals("renamed", buffer.body().getName());
+                                vertx.eventBus().<TestJsonObject>send("test.bodies", "{\"name\":\"string\",\"id\":7}", options,
+                                        onSuccess((string) -> {
+                                            assertEquals("renamed", string.body().getName());
+                                            assertEquals(7L, (long) string.body().getId());
+                                            // the header is required
+                                            vertx.eventBus().send("test.bodies", "{}", (missing) -> {
+                                                assertTrue(missing.failed());
+                                                assertEquals("Missing header name", missing.cause().getMessage());
+                                                applicationContext.close();
+                                                testComplete();
+                                            });
+                                        }));
+                            }));
+                }));
+        await();
+    }
+
+    public static class Renamer {
+
+        @VertxConsumer("test.bodies")
+        public TestJsonObject rename(TestJsonObject object, @ConsumerHeader("name") String name) {
+            object.setName(name);
+            return object;
+        }
+    }
+
+    @Test
+    public void testNearCache() {
+        vertx = Vertx.vertx();
+        VertxHolder.set(vertx);
+        RedisStandIn standIn = new RedisStandIn(vertx);
+        AtomicBoolean listening = new AtomicBoolean();
+        standIn.listen(6380, onSuccess((server) -> listening.set(true)));
+        waitUntil(listening::get);
+        ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext("test-context.xml");
+        RedisClient redis = applicationContext.getBean("nearRedis", RedisClient.class);
+        RedisNearCache nearCache = applicationContext.getBean("nearRedisNearCache", RedisNearCache.class);
+        RedisClient otherProcess = RedisClient.create(vertx, new RedisOptions().setPort(6380));
+
+        redis.set("near", "1", onSuccess((ok) -> redis.get("near", onSuccess((miss) -> {
+            assertEquals("1", miss);
+            // a hit is answered later, not from within the call
+            AtomicBoolean returned = new AtomicBoolean();
+            redis.get("near", onSuccess((hit) -> {
+                assertTrue(returned.get());
+                assertEquals("1", hit);
+                assertEquals(1, standIn.gets());
+                assertEquals(1, nearCache.getHits());
+                assertEquals(1, nearCache.getMisses());
+                otherProcess.set("near", "2", onSuccess((ok2) -> otherProcess.publish(
+                        "vertx-spring.near-cache", "other\u0000near", onSuccess((receivers) -> {
+                            assertEquals(1L, (long) receivers);
+                            vertx.setPeriodic(10, (timer) -> {
+                                if (nearCache.getInvalidations() < 2) {
+                                    return;
+                                }
+                                vertx.cancelTimer(timer);
+                                redis.get("near", onSuccess((invalidated) -> {
+                                    assertEquals("2", invalidated);
+                                    assertEquals(2, standIn.gets());
+                                    // the connections of the context go with it
+                                    applicationContext.close();
+                                    otherProcess.close(onSuccess((closed) -> vertx.setPeriodic(10, (closing) -> {
+                                        if (standIn.connections() == 0) {
+                                            vertx.cancelTimer(closing);
+                                            testComplete();
+                                        }
+                                    })));
+                                }));
+                            });
+                        }))));
+            }));
+            returned.set(true);
+        }))));
+        await();
+    }
+
+    private void testConsumers(Handler<AsyncResult<Void>> handler) {
+        // the object goes both ways by reference
+        TestJsonObject obj = new TestJsonObject();
+        obj.setName("before");
+        vertx.eventBus().<TestJsonObject>send("test.rename", obj,
+                LocalCodec.deliveryOptions().addHeader("name", "after"), onSuccess((renamed) -> {
+                    assertSame(obj, renamed.body());
+                    assertEquals("after", obj.getName());
+                    vertx.eventBus().<String>send("test.worker", "body", onSuccess((worker) -> {
+                        assertEquals("body:true", worker.body());
+                        vertx.eventBus().<String>send("test.future", "body", onSuccess((future) -> {
+                            assertEquals("BODY", future.body());
+                            handler.handle(Future.succeededFuture());
+                        }));
+                    }));
+                }));
+    }
+
+    private void testTimeouts(Handler<AsyncResult<Void>> handler) {
+        // a worker handler is interrupted, a returned future cancelled
+        client.getNow(8080, "127.0.0.1", "/testTimeout", (worker) -> {
+            assertEquals(504, worker.statusCode());
+            client.getNow(8080, "127.0.0.1", "/testTimeoutFuture", (future) -> {
+                assertEquals(504, future.statusCode());
+                client.getNow(8080, "127.0.0.1", "/testTimeout/cancelled", (cancelled) -> cancelled.bodyHandler((body) -> {
+                    assertEquals("true,true", body.toString());
+                    testTimeoutClosed(handler);
+                }));
+            });
+        });
+    }
+
+    private void testTimeoutClosed(Handler<AsyncResult<Void>> handler) {
+        // the client goes before the deadline, the request is not failed any more
+        AtomicReference<Throwable> uncaught = new AtomicReference<>();
+        vertx.exceptionHandler(uncaught::set);
+        vertx.createNetClient().connect(8080, "127.0.0.1", onSuccess((socket) -> {
+            socket.write("GET /testTimeoutFuture HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n");
+            vertx.setTimer(30, (closing) -> socket.close());
+            vertx.setTimer(300, (checking) ->
+                    client.getNow(8080, "127.0.0.1", "/testTimeout/cancelled", (cancelled) -> cancelled.bodyHandler((body) -> {
+                        assertEquals("true,false", body.toString());
+                        assertNull(uncaught.get());
+                        vertx.exceptionHandler(null);
+                        handler.handle(Future.succeededFuture());
+                    })));
+        }));
+    }
+
+    private void testLimits(Handler<AsyncResult<Void>> handler) {
+        // one request in flight, then a burst of two a second
+        List<Integer> statuses = new ArrayList<>();
+        Handler<Integer> concurrent = (status) -> {
+            statuses.add(status);
+            if (statuses.size() < 2) {
+                return;
+            }
+            statuses.sort(null);
+            assertEquals(Arrays.asList(200, 503), statuses);
+            client.getNow(8080, "127.0.0.1", "/testLimited", (second) -> second.bodyHandler((body) -> {
+                assertEquals(200, second.statusCode());
+                assertEquals("done", body.toString());
+                client.getNow(8080, "127.0.0.1", "/testLimited", (third) -> {
+                    assertEquals(429, third.statusCode());
+                    assertEquals("1", third.getHeader("Retry-After"));
+                    testLimitedStream(handler);
+                });
+            }));
+        };
+        for (int i = 0; i < 2; i++) {
+            client.getNow(8080, "127.0.0.1", "/testLimited", (response) -> {
+                if (response.statusCode() == 503) {
+                    assertEquals("1", response.getHeader("Retry-After"));
+                }
+                response.bodyHandler((body) -> concurrent.handle(response.statusCode()));
+            });
+        }
+    }
+
+    private void testLimitedStream(Handler<AsyncResult<Void>> handler) {
+        // the client goes away in the middle of an endless stream, which gives its permit back
+        NetClient streaming = vertx.createNetClient();
+        streaming.connect(8080, "127.0.0.1", onSuccess((socket) -> {
+            socket.handler((chunk) -> {
+                socket.handler(null);
+                socket.close();
+                streaming.close();
+                retryLimitedStream(20, handler);
+            });
+            socket.write("GET /testLimitedStream?size=16384&count=" + Long.MAX_VALUE + " HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n");
+        }));
+    }
+
+    private void retryLimitedStream(int attempts, Handler<AsyncResult<Void>> handler) {
+        client.getNow(8080, "127.0.0.1", "/testLimitedStream?count=3&size=1", (resp) -> resp.bodyHandler((buff) -> {
+            if (resp.statusCode() == 503 && attempts > 0) {
+                vertx.setTimer(50, (timer) -> retryLimitedStream(attempts - 1, handler));
+                return;
+            }
+            assertEquals(200, resp.statusCode());
+            assertEquals("[\"x\",\"x\",\"x\"]", buff.toString());
+            testLimitedClosed(handler);
+        }));
+    }
+
+    private void testLimitedClosed(Handler<AsyncResult<Void>> handler) {
+        // the handler takes the close handler of its response, the permit still comes back
+        NetClient closing = vertx.createNetClient();
+        closing.connect(8080, "127.0.0.1", onSuccess((socket) -> {
+            socket.write("GET /testLimitedClosed?pending=true HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n");
+            vertx.setTimer(50, (timer) -> {
+                socket.close();
+                closing.close();
+                retryLimitedClosed(20, handler);
+            });
+        }));
+    }
+
+    private void retryLimitedClosed(int attempts, Handler<AsyncResult<Void>> handler) {
+        client.getNow(8080, "127.0.0.1", "/testLimitedClosed?pending=false", (resp) -> resp.bodyHandler((buff) -> {
+            if (resp.statusCode() == 503 && attempts > 0) {
+                vertx.setTimer(50, (timer) -> retryLimitedClosed(attempts - 1, handler));
+                return;
+            }
+            assertEquals(200, resp.statusCode());
+            assertEquals("true", buff.toString());
+            handler.handle(Future.succeededFuture());
+        }));
+    }
+
+    private void testRows(Handler<AsyncResult<Void>> handler) {
+        // several fetches of the row stream
+        client.put(8080, "127.0.0.1", "/testRows?count=100", (saved) -> saved.bodyHandler((count) -> {
+            assertEquals(200, saved.statusCode());
+            assertEquals("100", count.toString());
+
+            client.getNow(8080, "127.0.0.1", "/testRows?from=10", (resp) -> resp.bodyHandler((buff) -> {
+                assertEquals(200, resp.statusCode());
+                List<?> rows = decodePlain(buff, List.class);
+                assertEquals(90, rows.size());
+                assertEquals("animal 10", ((Map<?, ?>) rows.get(0)).get("NAME"));
+                assertEquals(99, ((Map<?, ?>) rows.get(89)).get("ID"));
+                handler.handle(Future.succeededFuture());
+            }));
+        })).end();
+    }
+
+    @Test
+    public void testJdbcPool() throws Exception {
+        vertx = Vertx.vertx();
+        VertxHolder.set(vertx);
+        ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext("test-context.xml");
+        PooledDataSource pool = applicationContext.getBean("jdbcResourcePool", PooledDataSource.class);
+        assertEquals(1, pool.getSize());
+
+        Connection first = pool.getConnection();
+        first.prepareStatement("SELECT id FROM animal").close();
+        first.prepareStatement("SELECT id FROM animal").close();
+        assertEquals(1, pool.getStatementMisses());
+        assertEquals(1, pool.getStatementHits());
+
+        // statements left open are closed with their connection, and given back to the cache
+        PreparedStatement forgotten = first.prepareStatement("SELECT id FROM animal");
+        int fetchSize = forgotten.getFetchSize();
+        forgotten.setFetchSize(fetchSize + 7);
+        forgotten.setMaxRows(3);
+        first.close();
+        assertTrue(forgotten.isClosed());
+        try {
+            forgotten.executeQuery();
+            fail("Statement still usable after its connection was closed");
+        } catch (SQLException expected) {
+            // closed
+        }
+        first = pool.getConnection();
+        PreparedStatement reused = first.prepareStatement("SELECT id FROM animal");
+        assertEquals(3, pool.getStatementHits());
+        assertEquals(fetchSize, reused.getFetchSize());
+        assertEquals(0, reused.getMaxRows());
+        reused.close();
+
+        // the second borrower waits for the only connection, so the pool grows
+        CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.getConnection();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+        waitUntil(() -> pool.getWaiting() == 1);
+        Thread.sleep(20);
+        first.close();
+        second.get().close();
+        assertEquals(1, pool.getOpen());
+        assertWaitUntil(() -> pool.getSize() > 1);
+
+        // and shrinks back once idle
+        assertWaitUntil(() -> pool.getSize() == 1);
+
+        // one-off queries run on a connection of the pool with the options of the client, given back after
+        JDBCClient jdbc = applicationContext.getBean("jdbcResource", JDBCClient.class);
+        jdbc.queryWithParams("SELECT COUNT(*) FROM animal WHERE id >= ?", new JsonArray().add(0), onSuccess((rows) -> {
+            assertEquals(1, rows.getNumRows());
+            assertEquals(0, pool.getActive());
+            jdbc.querySingle("SELECT 1", onSuccess((single) -> {
+                assertEquals(1, single.getInteger(0).intValue());
+                assertEquals(0, pool.getActive());
+                applicationContext.close();
+                testComplete();
+            }));
+        }));
+        await();
+    }
+
+    @Test
+    public void testIndexProcessor() throws Exception {
+        List<String> errors = compileRouter(
+                "@VertxRouter(\"/bad\")\n" +
+                "public class BadRouter {\n" +
+                "    @RouterHandler(method = HttpMethod.GET, value = \"/item/:id\")\n" +
+                "    public String first(@RouterPathVariable String id) { return id; }\n" +
+                "    @RouterHandler(method = HttpMethod.GET, value = \"/item/:id\")\n" +
+                "    public String second(@RouterPathVariable(\"key\") String key) { return key; }\n" +
+                "}\n");
+        assertEquals(errors.toString(), 2, errors.size());
+        assertTrue(errors.toString(), errors.stream().anyMatch((e) -> e.startsWith("Duplicate route GET /bad/item/:id")));
+        assertTrue(errors.toString(), errors.stream().anyMatch((e) -> e.startsWith("Unknown path variable \"key\"")));
+    }
+
+    @Test
+    public void testIndexProcessorPathVariables() throws Exception {
+        // the same path with other variable names is still the same route
+        List<String> errors = compileRouter(
+                "@VertxRouter(\"/bad\")\n" +
+                "public class BadRouter {\n" +
+                "    @RouterHandler(method = HttpMethod.GET, value = \"/item/:id\")\n" +
+                "    public String first(@RouterPathVariable String id) { return id; }\n" +
+                "    @RouterHandler(method = HttpMethod.GET, value = \"/item/:key\")\n" +
+                "    public String second(@RouterPathVariable String key) { return key; }\n" +
+                "    @RouterHandler(method = HttpMethod.GET, value = \"/item/:key/detail\")\n" +
+                "    public String detail(@RouterPathVariable String key) { return key; }\n" +
+                "}\n");
+        assertEquals(errors.toString(), 1, errors.size());
+        assertTrue(errors.toString(), errors.get(0).startsWith("Duplicate route GET /bad/item/:key"));
+    }
+
+    private static List<String> compileRouter(String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///test/BadRouter.java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return "package test;\n" +
+                        "import io.vertx.core.http.HttpMethod;\n" +
+                        "import io.vertx.ext.spring.annotation.*;\n" + source;
+            }
+        };
+        String classPath = Arrays.asList(RouterHandler.class, HttpMethod.class).stream()
+                .map((type) -> new File(type.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath())
+                .collect(Collectors.joining(File.pathSeparator));
+        File output = Files.createTempDirectory("router-index").toFile();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        compiler.getTask(null, null, diagnostics, Arrays.asList("-proc:only", "-classpath", classPath,
+                "-processor", RouterIndexProcessor.class.getName(), "-d", output.getPath()), null,
+                Collections.singletonList(file)).call();
+        return diagnostics.getDiagnostics().stream()
+                .filter((diagnostic) -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map((diagnostic) -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    private static Object getTarget(TargetSource targetSource) {
+        try {
+            return targetSource.getTarget();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static <T> T decodePlain(Buffer buff, Class<T> type) {
+        try {
+            return new ObjectMapper().readValue(buff.getBytes(), type);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T decodePlain(Buffer buff, TypeReference<T> type) {
+        try {
+            return new ObjectMapper().readValue(buff.getBytes(), type);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private void testPathGet(String key, String value, Handler<AsyncResult<Void>> handler) {
         client.getNow(8080, "127.0.0.1", "/test/" + key, (response) -> {
             if (response.statusCode() != 200) {
@@ -143,7 +1139,14 @@ public class SimpleTest extends AsyncTestBase {
                     )
                     .bodyHandler((buff) -> {
                         assertEquals(value, buff.toString());
-                        handler.handle(Future.succeededFuture());
+                        // trailing slashes are ignored, extra segments match nothing
+                        client.getNow(8080, "127.0.0.1", "/test/" + key + "/", (slash) -> slash.bodyHandler((slashBody) -> {
+                            assertEquals(value, slashBody.toString());
+                            client.getNow(8080, "127.0.0.1", "/test/" + key + "/more", (missing) -> {
+                                assertEquals(404, missing.statusCode());
+                                handler.handle(Future.succeededFuture());
+                            });
+                        }));
                     });
         });
     }
@@ -6,10 +6,30 @@ import io.vertx.ext.spring.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
 
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.spring.impl.handler.Deadline;
+import io.vertx.ext.spring.impl.jdbc.JdbcExecutor;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.redis.RedisClient;
 
@@ -22,6 +42,12 @@ public class TestRouter {
 
     @Autowired InMemoryCache testCache;
 
+    @Autowired Vertx vertx;
+
+    @Autowired
+    @Qualifier("jdbcResourceExecutor")
+    JdbcExecutor jdbc;
+
     @RouterHandler(method = HttpMethod.POST, value = "/testJson")
     public TestAnimal testPostJson(@RouterRequestBody TestJsonObject testJsonObject, HttpServerResponse response) {
 
@@ -31,6 +57,11 @@ public class TestRouter {
         return dog;
     }
 
+    @RouterHandler(method = HttpMethod.POST, value = "/testList")
+    public String testPostList(@RouterRequestBody List<TestJsonObject> objects) {
+        return objects.get(objects.size() - 1).getName();
+    }
+
     @RouterHandler(method = HttpMethod.GET, value = "/test")
     public String testGet(RoutingContext context, String key) {
         return testCache.get(key);
@@ -45,6 +76,13 @@ public class TestRouter {
         context.response().end(value.toString());
     }
 
+    @RouterHandler(method = HttpMethod.GET, value = "/testEndHandler")
+    public void testEndHandler(RoutingContext context, @RouterParam String key) {
+        // the measure of the route must not take the end handler of the response
+        context.response().endHandler((v) -> testCache.set(key, "ended"));
+        context.response().end(key);
+    }
+
     @RouterHandler(method = HttpMethod.GET, value = "/redis")
     public void testRedisGet(RoutingContext context, HttpServerRequest request) {
         String key = request.params().get("key");
@@ -74,6 +112,199 @@ public class TestRouter {
         });
     }
 
+    @RouterHandler(method = HttpMethod.POST, value = "/testStream")
+    public void testStream(RoutingContext context, @RouterRequestBody ReadStream<TestJsonObject> objects) {
+        StringBuilder names = new StringBuilder();
+        objects.exceptionHandler(context::fail)
+                .endHandler((v) -> context.response().end(names.toString()))
+                .handler((obj) -> names.append(obj.getName()));
+    }
+
+    @RouterHandler(method = HttpMethod.POST, value = "/testLimit", bodyLimit = 16)
+    public String testLimit(RoutingContext context) {
+        return context.getBodyAsString();
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testFuture")
+    public Future<String> testFuture(@RouterParam String key) {
+        Future<String> future = Future.future();
+        vertx.runOnContext((v) -> future.complete(testCache.get(key)));
+        return future;
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testCompletionStage")
+    public CompletionStage<TestJsonObject> testCompletionStage(@RouterParam String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            TestJsonObject obj = new TestJsonObject();
+            obj.setName(name);
+            return obj;
+        });
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testFailedFuture")
+    public Future<String> testFailedFuture() {
+        return Future.failedFuture(new IllegalStateException("failed on purpose"));
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testConvert/:method")
+    public String testConvert(@RouterPathVariable HttpMethod method, @RouterParam List<Long> ids,
+                              @RouterParam(required = false) boolean flag) {
+        long sum = 0;
+        for (Long id : ids) {
+            sum += id;
+        }
+        return method + ":" + sum + ":" + flag;
+    }
+
+    // the test holds the thread of the pool until it saw the next request refused
+    static volatile CountDownLatch poolEntered = new CountDownLatch(0);
+
+    static volatile CountDownLatch poolReleased = new CountDownLatch(0);
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testPool", workerPool = "testPool", ordered = false)
+    public String testPool() throws InterruptedException {
+        poolEntered.countDown();
+        poolReleased.await();
+        Thread.sleep(500);
+        return Thread.currentThread().getName();
+    }
+
+    private final AtomicInteger cachedCalls = new AtomicInteger();
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testCache/:key")
+    @RouterCache(pathVariables = "key", params = "lang")
+    public TestJsonObject testCache(@RouterPathVariable String key, @RouterParam(required = false) String lang) {
+        TestJsonObject obj = new TestJsonObject();
+        obj.setId((long) cachedCalls.incrementAndGet());
+        obj.setName(key + "/" + lang);
+        return obj;
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testCache/plain/:key")
+    @RouterCache
+    public String testPlainCache(@RouterPathVariable String key) {
+        return key;
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testExport")
+    public Stream<Long> testExport(@RouterParam int count) {
+        return LongStream.range(0, count).boxed();
+    }
+
+    private final AtomicBoolean exportedOnEventLoop = new AtomicBoolean();
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testWorkerExport", worker = true)
+    public Iterator<Long> testWorkerExport(@RouterParam int count) {
+        PrimitiveIterator.OfLong ids = LongStream.range(0, count).iterator();
+        return new Iterator<Long>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override
+            public Long next() {
+                if (Context.isOnEventLoopThread()) {
+                    exportedOnEventLoop.set(true);
+                }
+                return ids.next();
+            }
+        };
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testWorkerExport/eventLoop")
+    public boolean testWorkerExportOnEventLoop() {
+        return exportedOnEventLoop.get();
+    }
+
+    @RouterHandler(method = HttpMethod.PUT, value = "/testRows")
+    public Future<Integer> testSaveRows(@RouterParam int count) {
+        List<JsonArray> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new JsonArray().add(i).add("animal " + i));
+        }
+        Future<List<Integer>> counts = Future.future();
+        jdbc.batch("MERGE INTO animal KEY(id) VALUES (?, ?)", rows, counts);
+        return counts.map((updated) -> updated.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testRows")
+    public ReadStream<JsonObject> testRows(@RouterParam int from) {
+        return jdbc.queryStream("SELECT id, name FROM animal WHERE id >= ? ORDER BY id", new JsonArray().add(from));
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testLimited")
+    @RouterLimit(maxConcurrency = 1, rate = 1, burst = 2)
+    public Future<String> testLimited() {
+        Future<String> future = Future.future();
+        vertx.setTimer(200, (timer) -> future.complete("done"));
+        return future;
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testLimitedStream")
+    @RouterLimit(maxConcurrency = 1)
+    public Stream<String> testLimitedStream(@RouterParam Long count, @RouterParam Integer size) {
+        char[] item = new char[size];
+        Arrays.fill(item, 'x');
+        return LongStream.range(0, count).mapToObj((i) -> new String(item));
+    }
+
+    private final AtomicBoolean limitedClosed = new AtomicBoolean();
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testLimitedClosed")
+    @RouterLimit(maxConcurrency = 1)
+    public Future<String> testLimitedClosed(RoutingContext context, @RouterParam Boolean pending) {
+        if (!pending) {
+            return Future.succeededFuture(String.valueOf(limitedClosed.get()));
+        }
+        context.response().closeHandler((v) -> limitedClosed.set(true));
+        return Future.future();
+    }
+
+    private final AtomicBoolean timeoutInterrupted = new AtomicBoolean();
+
+    private volatile CompletableFuture<String> timedOutFuture;
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testTimeout", worker = true, timeout = 100)
+    public String testTimeout(Deadline deadline) throws InterruptedException {
+        try {
+            Thread.sleep(deadline.remaining() + 5000);
+        } catch (InterruptedException e) {
+            timeoutInterrupted.set(true);
+            throw e;
+        }
+        return "late";
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testTimeoutFuture", timeout = 100)
+    public CompletableFuture<String> testTimeoutFuture() {
+        timedOutFuture = new CompletableFuture<>();
+        return timedOutFuture;
+    }
+
+    @RouterHandler(method = HttpMethod.GET, value = "/testTimeout/cancelled")
+    public String testTimeoutCancelled() {
+        return timeoutInterrupted.get() + "," + (timedOutFuture != null && timedOutFuture.isCancelled());
+    }
+
+    @VertxConsumer("test.rename")
+    public TestJsonObject testRename(TestJsonObject object, @ConsumerHeader("name") String name) {
+        object.setName(name);
+        return object;
+    }
+
+    @VertxConsumer("test.future")
+    public Future<String> testFutureConsumer(String body) {
+        Future<String> future = Future.future();
+        vertx.runOnContext((v) -> future.complete(body.toUpperCase()));
+        return future;
+    }
+
+    @VertxConsumer(value = "test.worker", worker = true)
+    public String testWorkerConsumer(String body) {
+        return body + ":" + Context.isOnWorkerThread();
+    }
+
     @RouterHandler(method = HttpMethod.GET, value = "/test/:key")
     public void testPathGet(RoutingContext context, @RouterPathVariable String key) {
         context.response()